@@ -0,0 +1,15 @@
+package hello.aot;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 컴파일할 때 @Configuration 클래스의 CGLIB 프록시 대신 쓸 빈 등록 코드(<클래스명>__BeanRegistrar)를 만든다.
+// 만들어지는 코드는 ProxyFreeConfigurationProcessor 를 참고
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+@Documented
+public @interface ProxyFreeConfiguration {
+}
@@ -0,0 +1,473 @@
+package hello.aot;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@SupportedAnnotationTypes("hello.aot.ProxyFreeConfiguration")
+public class ProxyFreeConfigurationProcessor extends AbstractProcessor {
+
+    // @ProxyFreeConfiguration 이 붙은 @Configuration 클래스마다 <클래스명>__BeanRegistrar 를 만든다.
+    // 스프링은 실행할 때 @Configuration 클래스를 CGLIB 로 상속받아서, @Bean 메서드끼리 호출하면 새로 만들지 않고 컨테이너의 싱글톤을 돌려주게 한다.
+    // 여기서는 같은 일을 하는 하위 클래스를 컴파일할 때 소스 코드로 만들어 둔다.
+
+    // 만들어지는 클래스
+    // - 설정 클래스를 상속받고, @Bean 메서드를 모두 재정의해서 beanFactory.getBean(빈 이름) 을 돌려준다.
+    // - 빈을 실제로 만들 때는 get<메서드명>Instance() 가 super.<메서드>() 를 부른다.
+    // - registerBeans(GenericApplicationContext) 가 @PropertySource, 설정 클래스 자신, @Bean 메서드를 Supplier 로 등록한다.
+    //   ConfigurationClassPostProcessor 의 파싱과 CGLIB 클래스 생성 없이 refresh 할 수 있다.
+    // - CGLIB 프록시처럼 빈 사이의 의존 관계를 beanFactory.registerDependentBean 으로 기록한다.
+    //   만드는 중인 빈(CURRENT_BEAN)에서 다른 @Bean 메서드를 부르거나 파라미터로 받은 빈, 그리고 설정 클래스 빈이 대상이다.
+    //   그래서 getDependenciesForBean 으로 의존 관계를 볼 수 있고(ParallelInitBeanFactory), 종료할 때도 의존하는 빈부터 정리된다.
+
+    // @Bean 메서드에서 지원하는 것 : name(별칭 포함), initMethod, destroyMethod, autowireCandidate, @Primary, @Lazy, @DependsOn, 파라미터(타입으로 조회)
+    // 지원하지 않는 것 (컴파일 오류로 알려준다)
+    // - @Scope, @Conditional(@Profile 등 @Conditional 이 붙은 어노테이션 포함)
+    // - static / private / final 메서드, 같은 이름의 @Bean 메서드, 체크 예외를 던지는 메서드
+    // - 어노테이션(@Qualifier, @Value 등)이 붙은 파라미터, 제네릭 타입 파라미터 (타입으로만 조회하므로 의미가 달라진다)
+
+    static final String SUFFIX = "__BeanRegistrar";
+
+    private static final String CONFIGURATION = "org.springframework.context.annotation.Configuration";
+    private static final String PROPERTY_SOURCE = "org.springframework.context.annotation.PropertySource";
+    private static final String BEAN = "org.springframework.context.annotation.Bean";
+    private static final String PRIMARY = "org.springframework.context.annotation.Primary";
+    private static final String LAZY = "org.springframework.context.annotation.Lazy";
+    private static final String DEPENDS_ON = "org.springframework.context.annotation.DependsOn";
+    private static final String SCOPE = "org.springframework.context.annotation.Scope";
+    private static final String CONDITIONAL = "org.springframework.context.annotation.Conditional";
+    private static final String INFER_METHOD = "(inferred)";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                TypeElement configuration = (TypeElement) element;
+                List<BeanMethod> beanMethods = validate(configuration);
+                if (beanMethods != null) {
+                    write(configuration, beanMethods);
+                }
+            }
+        }
+        return true;
+    }
+
+    // @return 오류가 있으면 null
+    private List<BeanMethod> validate(TypeElement configuration) {
+        boolean valid = true;
+        if (configuration.getKind() != ElementKind.CLASS || configuration.getNestingKind() != NestingKind.TOP_LEVEL) {
+            error(configuration, "@ProxyFreeConfiguration must be on a top-level class");
+            return null;
+        }
+        if (find(configuration, CONFIGURATION) == null) {
+            error(configuration, "@ProxyFreeConfiguration requires @Configuration");
+            valid = false;
+        }
+        if (configuration.getModifiers().contains(Modifier.FINAL) || configuration.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(configuration, "@ProxyFreeConfiguration class must not be final or abstract");
+            valid = false;
+        }
+        if (!hasNoArgConstructor(configuration)) {
+            error(configuration, "@ProxyFreeConfiguration class needs a non-private no-arg constructor");
+            valid = false;
+        }
+
+        List<BeanMethod> beanMethods = new ArrayList<>();
+        Set<String> methodNames = new HashSet<>();
+        for (Element enclosed : configuration.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.METHOD || find(enclosed, BEAN) == null) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) enclosed;
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+                error(method, "@Bean method must not be static, private or final");
+                valid = false;
+            } else if (!method.getThrownTypes().isEmpty()) {
+                error(method, "@Bean method must not declare checked exceptions");
+                valid = false;
+            } else if (method.getReturnType().getKind() != TypeKind.DECLARED && method.getReturnType().getKind() != TypeKind.ARRAY) {
+                error(method, "@Bean method must return an object");
+                valid = false;
+            } else if (find(method, SCOPE) != null) {
+                error(method, "@Scope on @Bean methods is not supported");
+                valid = false;
+            } else if (isConditional(method, new HashSet<>())) {
+                error(method, "@Conditional (including @Profile) on @Bean methods is not supported");
+                valid = false;
+            } else if (!validateParameters(method)) {
+                valid = false;
+            } else if (!methodNames.add(method.getSimpleName().toString())) {
+                error(method, "overloaded @Bean methods are not supported");
+                valid = false;
+            } else {
+                beanMethods.add(new BeanMethod(method));
+            }
+        }
+        return valid ? beanMethods : null;
+    }
+
+    private boolean validateParameters(ExecutableElement method) {
+        boolean valid = true;
+        for (VariableElement parameter : method.getParameters()) {
+            if (!parameter.getAnnotationMirrors().isEmpty()) {
+                error(parameter, "annotated @Bean method parameters (@Qualifier, @Value, ...) are not supported");
+                valid = false;
+            } else if (isGeneric(parameter.asType())) {
+                error(parameter, "generic @Bean method parameters are not supported");
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private static boolean isGeneric(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isGeneric(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() == TypeKind.TYPEVAR) {
+            return true;
+        }
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    // @Conditional 이 직접 붙었거나, @Conditional 이 붙은 어노테이션(@Profile 등)이 붙었는지
+    private static boolean isConditional(Element element, Set<String> visited) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            String annotationName = annotation.getQualifiedName().toString();
+            if (annotationName.equals(CONDITIONAL)) {
+                return true;
+            }
+            if (!annotationName.startsWith("java.lang.annotation.") && visited.add(annotationName) && isConditional(annotation, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(TypeElement configuration, List<BeanMethod> beanMethods) {
+        String packageName = ((PackageElement) configuration.getEnclosingElement()).getQualifiedName().toString();
+        String configurationName = configuration.getSimpleName().toString();
+        String className = configurationName + SUFFIX;
+
+        Source s = new Source();
+        if (!packageName.isEmpty()) {
+            s.line("package " + packageName + ";").line();
+        }
+        s.line("// " + configurationName + " 에서 만든 코드, 직접 수정하지 않는다. (" + getClass().getName() + ")");
+        s.line("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+        s.line("@SuppressWarnings(\"unchecked\")");
+        s.line("public class " + className + " extends " + configurationName + " {").line();
+        s.line("    public static final String CONFIGURATION_BEAN_NAME = \"" + Introspector.decapitalize(configurationName) + "\";").line();
+        s.line("    // 이 스레드에서 지금 만들고 있는 @Bean 메서드의 빈 이름");
+        s.line("    private static final ThreadLocal<String> CURRENT_BEAN = new ThreadLocal<>();").line();
+        s.line("    private final org.springframework.beans.factory.config.ConfigurableListableBeanFactory beanFactory;").line();
+        s.line("    public " + className + "(org.springframework.beans.factory.config.ConfigurableListableBeanFactory beanFactory) {");
+        s.line("        this.beanFactory = beanFactory;");
+        s.line("    }").line();
+
+        s.line("    public static void registerBeans(org.springframework.context.support.GenericApplicationContext context) {");
+        for (String location : stringArray(find(configuration, PROPERTY_SOURCE), "value")) {
+            s.line("        addPropertySource(context, " + literal(location) + ");");
+        }
+        s.line("        registerAnnotationProcessors(context);");
+        s.line("        context.registerBean(CONFIGURATION_BEAN_NAME, " + className + ".class, () -> new " + className + "(context.getBeanFactory()));");
+        for (BeanMethod bean : beanMethods) {
+            s.line("        context.registerBean(" + literal(bean.name) + ", " + bean.rawType + ".class,");
+            s.line("                () -> configuration(context)." + bean.instanceMethod + "(),");
+            s.line("                definition -> {");
+            if (!bean.initMethod.isEmpty()) {
+                s.line("                    definition.setInitMethodName(" + literal(bean.initMethod) + ");");
+            }
+            if (!bean.destroyMethod.isEmpty()) {
+                s.line("                    definition.setDestroyMethodName(" + literal(bean.destroyMethod) + ");");
+            }
+            if (!bean.autowireCandidate) {
+                s.line("                    definition.setAutowireCandidate(false);");
+            }
+            if (bean.primary) {
+                s.line("                    definition.setPrimary(true);");
+            }
+            if (bean.lazy) {
+                s.line("                    definition.setLazyInit(true);");
+            }
+            if (!bean.dependsOn.isEmpty()) {
+                s.line("                    definition.setDependsOn(" + String.join(", ", literals(bean.dependsOn)) + ");");
+            }
+            s.line("                });");
+            for (String alias : bean.aliases) {
+                s.line("        context.registerAlias(" + literal(bean.name) + ", " + literal(alias) + ");");
+            }
+        }
+        s.line("    }").line();
+
+        s.line("    private static " + className + " configuration(org.springframework.context.support.GenericApplicationContext context) {");
+        s.line("        return context.getBean(CONFIGURATION_BEAN_NAME, " + className + ".class);");
+        s.line("    }").line();
+
+        s.line("    private static void addPropertySource(org.springframework.context.support.GenericApplicationContext context, String location) {");
+        s.line("        String resolved = context.getEnvironment().resolveRequiredPlaceholders(location);");
+        s.line("        try {");
+        s.line("            context.getEnvironment().getPropertySources().addLast(");
+        s.line("                    new org.springframework.core.io.support.ResourcePropertySource(resolved, context.getClassLoader()));");
+        s.line("        } catch (java.io.IOException e) {");
+        s.line("            throw new java.io.UncheckedIOException(\"cannot load property source: \" + resolved, e);");
+        s.line("        }");
+        s.line("    }").line();
+
+        // AnnotationConfigUtils.registerAnnotationConfigProcessors 에서 @Value, @Autowired, @PostConstruct, @PreDestroy 에 필요한 것만 등록한다.
+        s.line("    private static void registerAnnotationProcessors(org.springframework.context.support.GenericApplicationContext context) {");
+        s.line("        org.springframework.beans.factory.support.DefaultListableBeanFactory beanFactory = context.getDefaultListableBeanFactory();");
+        s.line("        if (!(beanFactory.getAutowireCandidateResolver() instanceof org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver)) {");
+        s.line("            beanFactory.setAutowireCandidateResolver(new org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver());");
+        s.line("        }");
+        s.line("        if (!(beanFactory.getDependencyComparator() instanceof org.springframework.core.annotation.AnnotationAwareOrderComparator)) {");
+        s.line("            beanFactory.setDependencyComparator(org.springframework.core.annotation.AnnotationAwareOrderComparator.INSTANCE);");
+        s.line("        }");
+        s.line("        if (!context.containsBeanDefinition(org.springframework.context.annotation.AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME)) {");
+        s.line("            context.registerBean(org.springframework.context.annotation.AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME,");
+        s.line("                    org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor.class,");
+        s.line("                    org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor::new);");
+        s.line("        }");
+        s.line("        if (!context.containsBeanDefinition(org.springframework.context.annotation.AnnotationConfigUtils.COMMON_ANNOTATION_PROCESSOR_BEAN_NAME)) {");
+        s.line("            context.registerBean(org.springframework.context.annotation.AnnotationConfigUtils.COMMON_ANNOTATION_PROCESSOR_BEAN_NAME,");
+        s.line("                    org.springframework.context.annotation.CommonAnnotationBeanPostProcessor.class,");
+        s.line("                    org.springframework.context.annotation.CommonAnnotationBeanPostProcessor::new);");
+        s.line("        }");
+        s.line("    }").line();
+
+        s.line("    // @Bean 메서드의 파라미터, 타입으로 찾고 만드는 중인 빈이 이 빈에 의존한다고 기록한다.");
+        s.line("    private <T> T dependency(Class<T> type, String currentBean) {");
+        s.line("        org.springframework.beans.factory.config.NamedBeanHolder<T> holder = beanFactory.resolveNamedBean(type);");
+        s.line("        beanFactory.registerDependentBean(holder.getBeanName(), currentBean);");
+        s.line("        return holder.getBeanInstance();");
+        s.line("    }");
+
+        for (BeanMethod bean : beanMethods) {
+            s.line();
+            s.line("    // 다른 @Bean 메서드에서 부르면 새로 만들지 않고 컨테이너에 등록된 빈을 돌려준다.");
+            s.line("    @Override");
+            s.line("    " + bean.access + bean.returnType + " " + bean.methodName + "(" + bean.parameterDeclarations() + ") {");
+            s.line("        Object bean = beanFactory.getBean(" + literal(bean.name) + ");");
+            s.line("        String currentBean = CURRENT_BEAN.get();");
+            s.line("        if (currentBean != null) {");
+            s.line("            beanFactory.registerDependentBean(" + literal(bean.name) + ", currentBean);");
+            s.line("        }");
+            s.line("        return (" + bean.returnType + ") bean;");
+            s.line("    }").line();
+            s.line("    private " + bean.returnType + " " + bean.instanceMethod + "() {");
+            s.line("        beanFactory.registerDependentBean(CONFIGURATION_BEAN_NAME, " + literal(bean.name) + ");");
+            s.line("        String previousBean = CURRENT_BEAN.get();");
+            s.line("        CURRENT_BEAN.set(" + literal(bean.name) + ");");
+            s.line("        try {");
+            s.line("            return super." + bean.methodName + "(" + bean.parameterLookups() + ");");
+            s.line("        } finally {");
+            s.line("            if (previousBean == null) {");
+            s.line("                CURRENT_BEAN.remove();");
+            s.line("            } else {");
+            s.line("                CURRENT_BEAN.set(previousBean);");
+            s.line("            }");
+            s.line("        }");
+            s.line("    }");
+        }
+        s.line("}");
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, configuration);
+            try (Writer writer = file.openWriter()) {
+                writer.write(s.toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot write " + qualifiedName, e);
+        }
+    }
+
+    private final class BeanMethod {
+
+        final String methodName;
+        final String instanceMethod;
+        final String access;
+        final String returnType;
+        final String rawType;
+        final List<String> parameterTypes = new ArrayList<>();
+        final String name;
+        final List<String> aliases;
+        final String initMethod;
+        final String destroyMethod;
+        final boolean autowireCandidate;
+        final boolean primary;
+        final boolean lazy;
+        final List<String> dependsOn;
+
+        BeanMethod(ExecutableElement method) {
+            methodName = method.getSimpleName().toString();
+            instanceMethod = "get" + Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1) + "Instance";
+            Set<Modifier> modifiers = method.getModifiers();
+            access = modifiers.contains(Modifier.PUBLIC) ? "public " : modifiers.contains(Modifier.PROTECTED) ? "protected " : "";
+            returnType = method.getReturnType().toString();
+            rawType = processingEnv.getTypeUtils().erasure(method.getReturnType()).toString();
+            for (VariableElement parameter : method.getParameters()) {
+                parameterTypes.add(processingEnv.getTypeUtils().erasure(parameter.asType()).toString());
+            }
+
+            AnnotationMirror bean = find(method, BEAN);
+            List<String> names = new ArrayList<>(stringArray(bean, "name"));
+            names.addAll(stringArray(bean, "value"));
+            name = names.isEmpty() ? methodName : names.get(0);
+            aliases = names.isEmpty() ? Collections.emptyList() : names.subList(1, names.size());
+            initMethod = (String) value(bean, "initMethod", "");
+            destroyMethod = (String) value(bean, "destroyMethod", INFER_METHOD);
+            autowireCandidate = (Boolean) value(bean, "autowireCandidate", true);
+            primary = find(method, PRIMARY) != null;
+            AnnotationMirror lazyAnnotation = find(method, LAZY);
+            lazy = lazyAnnotation != null && (Boolean) value(lazyAnnotation, "value", true);
+            dependsOn = stringArray(find(method, DEPENDS_ON), "value");
+        }
+
+        String parameterDeclarations() {
+            List<String> declarations = new ArrayList<>();
+            for (int i = 0; i < parameterTypes.size(); i++) {
+                declarations.add(parameterTypes.get(i) + " arg" + i);
+            }
+            return String.join(", ", declarations);
+        }
+
+        String parameterLookups() {
+            List<String> lookups = new ArrayList<>();
+            for (String parameterType : parameterTypes) {
+                lookups.add("dependency(" + parameterType + ".class, " + literal(name) + ")");
+            }
+            return String.join(", ", lookups);
+        }
+    }
+
+    private static final class Source {
+
+        private final StringBuilder sb = new StringBuilder();
+
+        Source line(String text) {
+            sb.append(text).append('\n');
+            return this;
+        }
+
+        Source line() {
+            sb.append('\n');
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
+    }
+
+    private boolean hasNoArgConstructor(TypeElement type) {
+        boolean declared = false;
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.CONSTRUCTOR) {
+                declared = true;
+                ExecutableElement constructor = (ExecutableElement) enclosed;
+                if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                    return true;
+                }
+            }
+        }
+        return !declared;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static AnnotationMirror find(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static Object value(AnnotationMirror mirror, String name, Object defaultValue) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return defaultValue;
+    }
+
+    // 배열 속성은 값이 하나면 배열 없이 쓸 수 있으므로 두 경우를 모두 처리한다.
+    private static List<String> stringArray(AnnotationMirror mirror, String name) {
+        if (mirror == null) {
+            return Collections.emptyList();
+        }
+        Object value = value(mirror, name, null);
+        List<String> values = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                values.add((String) ((AnnotationValue) item).getValue());
+            }
+        } else if (value instanceof String) {
+            values.add((String) value);
+        }
+        return values;
+    }
+
+    private static List<String> literals(List<String> values) {
+        List<String> literals = new ArrayList<>();
+        for (String value : values) {
+            literals.add(literal(value));
+        }
+        return literals;
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
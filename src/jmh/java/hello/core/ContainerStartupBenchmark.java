@@ -0,0 +1,199 @@
+package hello.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContainerStartupBenchmark {
+
+    // 스프링 컨테이너를 만들고(refresh) 닫는 데 걸리는 시간
+    // AppConfig(@Bean 직접 등록), AutoAppConfig(컴포넌트 스캔), appConfig.xml(XmlAppContext 와 같은 방식) 세 가지를 비교한다.
+    // appConfigProxyFree 는 AppConfig 를 CGLIB 프록시 없이 등록한다. (AppContexts.proxyFreeAppConfig 와 같은 방식)
+
+    // warm  : 같은 JVM 에서 반복해서 만든다. 클래스 로딩과 CGLIB 클래스 생성은 처음 한 번만 일어난다.
+    // cold  : JVM 을 새로 띄우고 딱 한 번 만든다. (SingleShotTime, fork 10 번) 오토스케일링으로 새 인스턴스가 뜰 때의 시간에 가깝다.
+    // scan / parseXml : 컴포넌트 스캔과 XML 정의 파싱만 따로 잰다. scanIgnoringIndex 는 컴포넌트 인덱스 없이 스캔한다.
+
+    // 단계별 시간은 StartupPhaseTimer 로 모아서 벤치마크가 끝날 때(@TearDown) 출력한다.
+    // ex) ./gradlew jmh -PjmhIncludes=ContainerStartup
+
+    private final StartupPhaseTimer timer = new StartupPhaseTimer();
+    private PrintStream out;
+    private boolean measuring;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // AppConfig 의 "call AppConfig.xxx" 출력이 컨테이너를 만들 때마다 찍히지 않도록 측정하는 동안 표준 출력을 버린다.
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    // 워밍업 동안 모은 시간은 버리고 측정 반복의 시간만 출력한다.
+    @Setup(Level.Iteration)
+    public void setupIteration(IterationParams params) {
+        if (params.getType() == IterationType.MEASUREMENT && !measuring) {
+            timer.reset();
+            measuring = true;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(BenchmarkParams params) {
+        System.setOut(out);
+        timer.print(params.getBenchmark(), out);
+    }
+
+    @Benchmark
+    public int appConfig() {
+        return annotationConfig(AppConfig.class);
+    }
+
+    @Benchmark
+    public int autoAppConfig() {
+        return annotationConfig(AutoAppConfig.class);
+    }
+
+    @Benchmark
+    public int xml() {
+        return xmlConfig();
+    }
+
+    @Benchmark
+    public int appConfigProxyFree() {
+        return proxyFreeConfig();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(10)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public int appConfigCold() {
+        return annotationConfig(AppConfig.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(10)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public int autoAppConfigCold() {
+        return annotationConfig(AutoAppConfig.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(10)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public int xmlCold() {
+        return xmlConfig();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(10)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public int appConfigProxyFreeCold() {
+        return proxyFreeConfig();
+    }
+
+    // AutoAppConfig 의 @ComponentScan 과 같은 조건(hello.core 하위, @Configuration 제외)으로 스캔만 한다.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int scan() {
+        ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(new DefaultListableBeanFactory());
+        scanner.setIncludeAnnotationConfig(false);
+        scanner.addExcludeFilter(new AnnotationTypeFilter(Configuration.class));
+        return scanner.scan("hello.core");
+    }
+
+    // 컴포넌트 인덱스(META-INF/spring.components)를 무시하고 클래스패스를 모두 읽어서 스캔한다. (scan 과 비교용)
+    // 인덱스 사용 여부는 JVM 마다 한 번만 읽으므로 fork 옵션으로 바꾼다.
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(value = 1, jvmArgsAppend = "-Dspring.index.ignore=true")
+    public int scanIgnoringIndex() {
+        return scan();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int parseXml() {
+        return new XmlBeanDefinitionReader(new DefaultListableBeanFactory()).loadBeanDefinitions("appConfig.xml");
+    }
+
+    private int annotationConfig(Class<?> configClass) {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext();
+        useTimer(ac);
+        ac.register(configClass);
+        ac.refresh();
+        return close(ac);
+    }
+
+    private int xmlConfig() {
+        GenericXmlApplicationContext ac = new GenericXmlApplicationContext();
+        useTimer(ac);
+        long start = System.nanoTime();
+        ac.load("appConfig.xml");
+        timer.record(StartupPhaseTimer.XML_LOAD, System.nanoTime() - start);
+        ac.refresh();
+        return close(ac);
+    }
+
+    // 컴파일할 때 만든 AppConfig__BeanRegistrar 로 등록한다. (설정 클래스 파싱, CGLIB 보강 단계가 없다)
+    private int proxyFreeConfig() {
+        GenericApplicationContext ac = new GenericApplicationContext();
+        useTimer(ac);
+        long start = System.nanoTime();
+        AppConfig__BeanRegistrar.registerBeans(ac);
+        timer.record(StartupPhaseTimer.REGISTER, System.nanoTime() - start);
+        ac.refresh();
+        return close(ac);
+    }
+
+    private void useTimer(GenericApplicationContext ac) {
+        ac.setApplicationStartup(timer);
+        ac.getBeanFactory().setApplicationStartup(timer);
+    }
+
+    private int close(GenericApplicationContext ac) {
+        int beanCount = ac.getBeanDefinitionCount();
+        long start = System.nanoTime();
+        ac.close();
+        timer.record(StartupPhaseTimer.CLOSE, System.nanoTime() - start);
+        timer.finishRun();
+        return beanCount;
+    }
+}
@@ -0,0 +1,135 @@
+package hello.core;
+
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class StartupPhaseTimer implements ApplicationStartup {
+
+    // 컨테이너가 refresh 하면서 남기는 StartupStep 을 단계별로 모아서 시간을 더한다.
+    // ApplicationContext.setApplicationStartup 으로 넣어두면 스프링이 단계마다 start / end 를 부른다.
+    // 같은 이름의 단계가 안쪽에서 또 시작되면(빈 A 를 만들다가 의존하는 빈 B 를 만드는 경우) 바깥 단계만 더해서 두 번 세지 않는다.
+    // 한 스레드에서만 사용한다.
+
+    public static final String REGISTER = "spring.context.component-classes.register";
+    public static final String CONFIG_PARSE = "spring.context.config-classes.parse";
+    public static final String CONFIG_ENHANCE = "spring.context.config-classes.enhance";
+    public static final String INSTANTIATE = "spring.beans.instantiate";
+    public static final String REFRESH = "spring.context.refresh";
+    // 스프링이 남기지 않는 단계는 벤치마크가 직접 record 로 남긴다.
+    public static final String XML_LOAD = "xml.load";
+    public static final String CLOSE = "context.close";
+
+    private static final Map<String, String> LABELS = new LinkedHashMap<>();
+
+    static {
+        LABELS.put(REGISTER, "설정 클래스 등록");
+        LABELS.put(XML_LOAD, "XML 정의 파싱");
+        LABELS.put(CONFIG_PARSE, "설정 클래스 파싱(컴포넌트 스캔 포함)");
+        LABELS.put(CONFIG_ENHANCE, "CGLIB 보강");
+        LABELS.put(INSTANTIATE, "빈 생성");
+        LABELS.put(REFRESH, "refresh 전체");
+        LABELS.put(CLOSE, "close");
+    }
+
+    private final Map<String, long[]> totals = new LinkedHashMap<>();
+    private final Map<String, Integer> depths = new LinkedHashMap<>();
+    private long nextId;
+    private int runs;
+
+    @Override
+    public StartupStep start(String name) {
+        int depth = depths.getOrDefault(name, 0);
+        depths.put(name, depth + 1);
+        return new Step(name, nextId++, depth == 0);
+    }
+
+    public void record(String name, long nanos) {
+        totals.computeIfAbsent(name, k -> new long[1])[0] += nanos;
+    }
+
+    // 컨테이너를 한 번 만들고 닫을 때마다 부른다. 평균을 낼 때 사용한다.
+    public void finishRun() {
+        runs++;
+    }
+
+    public void reset() {
+        totals.clear();
+        depths.clear();
+        runs = 0;
+    }
+
+    // 컨테이너 한 번 당 평균 시간(ms)을 단계별로 출력한다.
+    public void print(String title, PrintStream out) {
+        if (runs == 0) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append('[').append(title).append("] runs = ").append(runs);
+        for (Map.Entry<String, String> label : LABELS.entrySet()) {
+            long[] total = totals.get(label.getKey());
+            if (total != null) {
+                sb.append(String.format("%n  %-30s %10.3f ms", label.getValue(), total[0] / 1_000_000.0 / runs));
+            }
+        }
+        out.println(sb);
+    }
+
+    private final class Step implements StartupStep {
+
+        private final String name;
+        private final long id;
+        private final boolean outermost;
+        private final long start = System.nanoTime();
+
+        Step(String name, long id, boolean outermost) {
+            this.name = name;
+            this.id = id;
+            this.outermost = outermost;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getParentId() {
+            return null;
+        }
+
+        @Override
+        public StartupStep tag(String key, String value) {
+            return this;
+        }
+
+        @Override
+        public StartupStep tag(String key, Supplier<String> value) {
+            return this;
+        }
+
+        @Override
+        public Tags getTags() {
+            return Collections::emptyIterator;
+        }
+
+        @Override
+        public void end() {
+            long elapsed = System.nanoTime() - start;
+            depths.merge(name, -1, Integer::sum);
+            if (outermost) {
+                record(name, elapsed);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package hello.core.beanfind;
+
+import hello.core.AppConfig;
+import hello.core.AutoAppConfig;
+import hello.core.annotation.MainDiscountPolicy;
+import hello.core.discount.DiscountPolicy;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberService;
+import hello.core.member.MemberServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BeanLookupBenchmark {
+
+    // 이미 만들어진 컨테이너에서 getBean 한 번의 비용
+    // ApplicationContextBasicFindTest (이름, 타입, 구체 타입) 와
+    // ApplicationContextExtendsFindTest (부모 타입이 여러 개일 때 @Primary, 한정자, 부모 타입으로 모두 조회) 의 조회 방식을 잰다.
+    // 한정자 조회는 AutoAppConfig 에서 OrderServiceImpl 생성자처럼 @MainDiscountPolicy DiscountPolicy 주입 지점을 해석한다.
+    // DiscountPolicy 빈은 여럿(FixDiscountPolicy, RateDiscountPolicy)이고, 한정자로 걸러서 RateDiscountPolicy 하나를 고른다.
+
+    AnnotationConfigApplicationContext appConfig;
+    AnnotationConfigApplicationContext autoAppConfig;
+    DependencyDescriptor mainDiscountPolicy;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        mainDiscountPolicy = new DependencyDescriptor(MainDiscountPolicyInjectionPoint.class.getDeclaredField("discountPolicy"), true);
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            appConfig = new AnnotationConfigApplicationContext(AppConfig.class);
+            autoAppConfig = new AnnotationConfigApplicationContext(AutoAppConfig.class);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        appConfig.close();
+        autoAppConfig.close();
+    }
+
+    @Benchmark
+    public Object byName() {
+        return appConfig.getBean("memberService");
+    }
+
+    @Benchmark
+    public MemberService byNameAndType() {
+        return appConfig.getBean("memberService", MemberService.class);
+    }
+
+    @Benchmark
+    public MemberService byType() {
+        return appConfig.getBean(MemberService.class);
+    }
+
+    @Benchmark
+    public MemberServiceImpl byConcreteType() {
+        return appConfig.getBean(MemberServiceImpl.class);
+    }
+
+    // MemberRepository 빈이 여러 개라서 @Primary(ShardedMemberRepository) 로 하나를 고른다.
+    @Benchmark
+    public MemberRepository byTypePrimary() {
+        return autoAppConfig.getBean(MemberRepository.class);
+    }
+
+    @Benchmark
+    public Object byQualifier() {
+        return autoAppConfig.getBeanFactory().resolveDependency(mainDiscountPolicy, null);
+    }
+
+    @Benchmark
+    public Map<String, DiscountPolicy> beansOfType() {
+        return autoAppConfig.getBeansOfType(DiscountPolicy.class);
+    }
+
+    static class MainDiscountPolicyInjectionPoint {
+        @MainDiscountPolicy
+        DiscountPolicy discountPolicy;
+    }
+}
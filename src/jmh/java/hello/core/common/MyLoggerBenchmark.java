@@ -0,0 +1,209 @@
+package hello.core.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.AbstractRequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MyLoggerBenchmark {
+
+    // myLogger.log 한 번의 비용
+    // scopedProxy : 예전 MyLogger 처럼 @Scope(value = "request", proxyMode = ScopedProxyMode.TARGET_CLASS) 인 빈을 CGLIB 프록시로 호출한다.
+    //               프록시 -> RequestContextHolder 조회 -> request scope 에서 빈 조회를 거친다.
+    // threadLocal : 지금의 MyLogger (싱글톤 + ThreadLocal 에 둔 요청 정보)
+    // *Request 는 요청 하나(시작, 로그 한 줄, 끝)의 비용이다. 예전 방식은 빈 생성, UUID.randomUUID(), 소멸 콜백을 포함한다.
+
+    // 두 방식 모두 같은 AsyncLogWriter 에 넘긴다. 소비자 스레드를 시작하지 않은 DROP 정책이라 버퍼가 차면 바로 버린다.
+    // 그래서 파일 I/O 없이 요청 정보를 찾는 비용의 차이만 남는다.
+
+    static final String REQUEST_URL = "http://localhost:8080/log-demo";
+
+    AsyncLogWriter logWriter;
+    MyLogger myLogger;
+    AnnotationConfigApplicationContext ac;
+    RequestScopedLogger scopedLogger;
+    MapRequestAttributes requestAttributes;
+
+    @Setup
+    public void setup() {
+        logWriter = new AsyncLogWriter((Path) null, 1024, AsyncLogWriter.OverflowPolicy.DROP);
+        myLogger = new MyLogger(logWriter);
+        myLogger.begin(REQUEST_URL);
+
+        ac = new AnnotationConfigApplicationContext();
+        ac.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+        ac.getBeanFactory().registerSingleton("asyncLogWriter", logWriter);
+        ac.register(ScopedProxyConfig.class);
+        ac.refresh();
+        scopedLogger = ac.getBean(RequestScopedLogger.class);
+
+        // @State(Scope.Thread) 라서 측정하는 스레드에서 요청을 시작해둔다.
+        requestAttributes = new MapRequestAttributes();
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        scopedLogger.setRequestURL(REQUEST_URL);
+    }
+
+    @TearDown
+    public void tearDown() {
+        myLogger.end();
+        requestAttributes.requestCompleted();
+        RequestContextHolder.resetRequestAttributes();
+        ac.close();
+        logWriter.close();
+    }
+
+    @Benchmark
+    public void scopedProxy() {
+        scopedLogger.log("service id = testId");
+    }
+
+    @Benchmark
+    public void threadLocal() {
+        myLogger.log("service id = testId");
+    }
+
+    @Benchmark
+    public void scopedProxyRequest() {
+        MapRequestAttributes attributes = new MapRequestAttributes();
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            scopedLogger.setRequestURL(REQUEST_URL);
+            scopedLogger.log("service id = testId");
+        } finally {
+            attributes.requestCompleted();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+        }
+    }
+
+    @Benchmark
+    public void threadLocalRequest() {
+        myLogger.begin(REQUEST_URL);
+        try {
+            myLogger.log("service id = testId");
+        } finally {
+            myLogger.end();
+        }
+        myLogger.begin(REQUEST_URL);
+    }
+
+    @Configuration
+    static class ScopedProxyConfig {
+
+        @Bean
+        @org.springframework.context.annotation.Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
+        public RequestScopedLogger requestScopedLogger(AsyncLogWriter asyncLogWriter) {
+            return new RequestScopedLogger(asyncLogWriter);
+        }
+    }
+
+    // request scope 를 사용하던 예전 MyLogger 와 같은 일을 한다.
+    public static class RequestScopedLogger {
+
+        private final AsyncLogWriter logWriter;
+        private String uuid;
+        private String requestURL;
+
+        public RequestScopedLogger(AsyncLogWriter logWriter) {
+            this.logWriter = logWriter;
+        }
+
+        public void setRequestURL(String requestURL) {
+            this.requestURL = requestURL;
+        }
+
+        public void log(String message) {
+            logWriter.log(uuid, requestURL, message);
+        }
+
+        @PostConstruct
+        public void init() {
+            uuid = UUID.randomUUID().toString();
+            logWriter.log(uuid, null, "request scope bean create: " + this);
+        }
+
+        @PreDestroy
+        public void close() {
+            logWriter.log(uuid, null, "request scope bean close: " + this);
+        }
+    }
+
+    // 서블릿 컨테이너 없이 request scope 를 쓰기 위한 요청 속성
+    // ServletRequestAttributes 가 HttpServletRequest 의 속성 맵을 쓰는 것처럼 HashMap 에 저장한다.
+    static class MapRequestAttributes extends AbstractRequestAttributes {
+
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        @Override
+        public Object getAttribute(String name, int scope) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value, int scope) {
+            attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public String[] getAttributeNames(int scope) {
+            return attributes.keySet().toArray(new String[0]);
+        }
+
+        @Override
+        public void registerDestructionCallback(String name, Runnable callback, int scope) {
+            registerRequestDestructionCallback(name, callback);
+        }
+
+        @Override
+        public Object resolveReference(String key) {
+            return null;
+        }
+
+        @Override
+        public String getSessionId() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object getSessionMutex() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void updateAccessedSessionAttributes() {
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DiscountPolicyBenchmark {
+
+    // FixDiscountPolicy / RateDiscountPolicy.discount 한 건 비용과
+    // 같은 정책을 감싼 Reloadable / Caching / RuleDiscountPolicy, 배열 API(discountAll) 의 건당 비용을 비교한다.
+    // 배열 API 는 벡터화되지 않은 스칼라 반복문이다. discount 반복 호출과의 차이는 회원 조회와 호출, 분기를 없앤 만큼이다.
+
+    static final int SIZE = 4096;
+
+    FixDiscountPolicy fixDiscountPolicy;
+    RateDiscountPolicy rateDiscountPolicy;
+    RuleDiscountPolicy ruleDiscountPolicy;
+    ReloadableDiscountPolicy reloadableDiscountPolicy;
+    CachingDiscountPolicy cachingDiscountPolicy;
+
+    Member[] members;
+    byte[] gradeOrdinals;
+    int[] prices;
+    int[] out;
+
+    @Setup
+    public void setup() {
+        fixDiscountPolicy = new FixDiscountPolicy();
+        rateDiscountPolicy = new RateDiscountPolicy();
+        ruleDiscountPolicy = RuleDiscountPolicy.load("discount-rules.txt");
+        reloadableDiscountPolicy = new ReloadableDiscountPolicy(rateDiscountPolicy);
+        cachingDiscountPolicy = new CachingDiscountPolicy(ruleDiscountPolicy, 1024, CachingDiscountPolicy.Eviction.TINY_LFU);
+
+        Member vip = new Member(1L, "memberA", Grade.VIP);
+        Member basic = new Member(2L, "memberB", Grade.BASIC);
+        Random random = new Random(0);
+        members = new Member[SIZE];
+        gradeOrdinals = new byte[SIZE];
+        prices = new int[SIZE];
+        out = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            members[i] = random.nextBoolean() ? vip : basic;
+            gradeOrdinals[i] = (byte) members[i].getGrade().ordinal();
+            // 가격은 인기 상품 가격 50 개에 몰려 있다.
+            prices[i] = 1000 * (1 + random.nextInt(50));
+        }
+    }
+
+    private int loop(DiscountPolicy discountPolicy) {
+        int sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += discountPolicy.discount(members[i], prices[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int fix() {
+        return loop(fixDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int rate() {
+        return loop(rateDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int rule() {
+        return loop(ruleDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int reloadable() {
+        return loop(reloadableDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int caching() {
+        return loop(cachingDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    @Threads(4)
+    public int rateContended() {
+        return loop(rateDiscountPolicy);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    @Threads(4)
+    public int cachingContended() {
+        return loop(cachingDiscountPolicy);
+    }
+
+    // 여러 스레드가 같은 out 배열에 쓰지 않도록 배열 API 는 단일 스레드로만 측정한다.
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] fixDiscountAll() {
+        fixDiscountPolicy.discountAll(gradeOrdinals, prices, out);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] rateDiscountAll() {
+        rateDiscountPolicy.discountAll(gradeOrdinals, prices, out);
+        return out;
+    }
+}
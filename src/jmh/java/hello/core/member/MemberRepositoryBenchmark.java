@@ -0,0 +1,114 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberRepositoryBenchmark {
+
+    // 회원 저장소 save / findById
+    // 단일 스레드와 경합(스레드 4개) 두 가지로 측정한다.
+    // MemoryMemberRepository(HashMap) 는 동시 저장이 안전하지 않아서 경합 측정은 조회만 한다.
+    // concurrentSaveAndFindContended 는 저장 1번에 조회 4번을 섞어서 측정한다.
+
+    static final int MEMBERS = 100_000;
+
+    MemoryMemberRepository memoryMemberRepository;
+    ConcurrentMemberRepository concurrentMemberRepository;
+    PrimitiveMemberRepository primitiveMemberRepository;
+    Member[] members;
+
+    @Setup
+    public void setup() {
+        memoryMemberRepository = new MemoryMemberRepository();
+        concurrentMemberRepository = new ConcurrentMemberRepository();
+        primitiveMemberRepository = new PrimitiveMemberRepository();
+        members = new Member[MEMBERS];
+        for (int i = 0; i < MEMBERS; i++) {
+            members[i] = new Member((long) i, "member" + i, i % 2 == 0 ? Grade.VIP : Grade.BASIC);
+            memoryMemberRepository.save(members[i]);
+            concurrentMemberRepository.save(members[i]);
+            primitiveMemberRepository.save(members[i]);
+        }
+    }
+
+    private static int nextIndex() {
+        return ThreadLocalRandom.current().nextInt(MEMBERS);
+    }
+
+    @Benchmark
+    public Member memoryFindById() {
+        return memoryMemberRepository.findById((long) nextIndex());
+    }
+
+    @Benchmark
+    public void memorySave() {
+        memoryMemberRepository.save(members[nextIndex()]);
+    }
+
+    @Benchmark
+    public Member concurrentFindById() {
+        return concurrentMemberRepository.findById((long) nextIndex());
+    }
+
+    @Benchmark
+    public void concurrentSave() {
+        concurrentMemberRepository.save(members[nextIndex()]);
+    }
+
+    @Benchmark
+    public Member primitiveFindById() {
+        return primitiveMemberRepository.findById(nextIndex());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Member memoryFindByIdContended() {
+        return memoryMemberRepository.findById((long) nextIndex());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Member concurrentFindByIdContended() {
+        return concurrentMemberRepository.findById((long) nextIndex());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void concurrentSaveContended() {
+        concurrentMemberRepository.save(members[nextIndex()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void concurrentSaveAndFindContended(Blackhole blackhole) {
+        concurrentMemberRepository.save(members[nextIndex()]);
+        for (int r = 0; r < 4; r++) {
+            blackhole.consume(concurrentMemberRepository.findById((long) nextIndex()));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Member primitiveFindByIdContended() {
+        return primitiveMemberRepository.findById(nextIndex());
+    }
+}
@@ -0,0 +1,93 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemoryMemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderServiceBenchmark {
+
+    // OrderServiceImpl.createOrder (회원 조회 + 할인 계산 + 주문 생성)
+    // 대량 API(createOrders) 와 비교할 수 있도록 같은 크기의 배치도 측정한다.
+
+    static final int MEMBERS = 10_000;
+    static final int BATCH = 1024;
+
+    OrderService memoryOrderService;
+    OrderService concurrentOrderService;
+    long[] memberIds;
+    String[] itemNames;
+    int[] itemPrices;
+
+    @Setup
+    public void setup() {
+        MemoryMemberRepository memoryMemberRepository = new MemoryMemberRepository();
+        ConcurrentMemberRepository concurrentMemberRepository = new ConcurrentMemberRepository();
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member((long) i, "member" + i, i % 2 == 0 ? Grade.VIP : Grade.BASIC);
+            memoryMemberRepository.save(member);
+            concurrentMemberRepository.save(member);
+        }
+        memoryOrderService = new OrderServiceImpl(memoryMemberRepository, new RateDiscountPolicy());
+        concurrentOrderService = new OrderServiceImpl(concurrentMemberRepository, new RateDiscountPolicy());
+
+        memberIds = new long[BATCH];
+        itemNames = new String[BATCH];
+        itemPrices = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            memberIds[i] = ThreadLocalRandom.current().nextInt(MEMBERS);
+            itemNames[i] = "item" + i;
+            itemPrices[i] = 1000 * (1 + i % 50);
+        }
+    }
+
+    private static long nextMemberId() {
+        return ThreadLocalRandom.current().nextInt(MEMBERS);
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return memoryOrderService.createOrder(nextMemberId(), "itemA", 10000);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Order createOrderContended() {
+        return concurrentOrderService.createOrder(nextMemberId(), "itemA", 10000);
+    }
+
+    // 주문 BATCH 건을 createOrder 로 하나씩 만든다. (createOrders 와 비교용)
+    @Benchmark
+    public void createOrderLoop(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(concurrentOrderService.createOrder(memberIds[i], itemNames[i], itemPrices[i]));
+        }
+    }
+
+    @Benchmark
+    public void createOrders(Blackhole blackhole) {
+        concurrentOrderService.createOrders(memberIds, itemNames, itemPrices, blackhole::consume);
+    }
+}
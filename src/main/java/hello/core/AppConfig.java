@@ -1,19 +1,73 @@
 package hello.core;
 
+import hello.aot.ProxyFreeConfiguration;
+import hello.core.common.AsyncLogWriter;
+import hello.core.discount.CachingDiscountPolicy;
 import hello.core.discount.DiscountPolicy;
 import hello.core.discount.FixDiscountPolicy;
 import hello.core.discount.RateDiscountPolicy;
+import hello.core.discount.ReloadableDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
 import hello.core.member.MemberRepository;
 import hello.core.member.MemberService;
 import hello.core.member.MemberServiceImpl;
-import hello.core.member.MemoryMemberRepository;
+import hello.core.member.ShardedMemberRepository;
+import hello.core.member.SnapshotMemberRepository;
+import hello.core.member.WriteAheadLogMemberRepository;
 import hello.core.order.OrderService;
 import hello.core.order.OrderServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 
 @Configuration
+@PropertySource("classpath:application.properties")
+// 컴파일할 때 CGLIB 프록시 없이 같은 빈을 등록하는 AppConfig__BeanRegistrar 를 만든다. (AppContexts.appConfig 참고)
+@ProxyFreeConfiguration
 public class AppConfig {
+
+    // 회원 저장소 파티션 설정 (application.properties)
+    // 스프링 컨테이너 없이 new AppConfig() 로 사용하면 주입되지 않아서 0 이 되고, 이때는 기존처럼 단일 저장소를 사용한다.
+    @Value("${member.repository.partitions:0}")
+    private int memberRepositoryPartitions;
+    @Value("${member.repository.partition-executors:false}")
+    private boolean memberRepositoryPartitionExecutors;
+    // 회원 스냅샷 파일, 지정하지 않으면 스냅샷을 사용하지 않는다. (SnapshotMemberRepository)
+    @Value("${member.snapshot.file:}")
+    private String memberSnapshotFile;
+    @Value("${member.snapshot.interval-ms:60000}")
+    private long memberSnapshotIntervalMillis;
+    // 회원 write-ahead log 파일, 지정하지 않으면 join 을 디스크에 남기지 않는다. (WriteAheadLogMemberRepository)
+    @Value("${member.wal.file:}")
+    private String memberWalFile;
+    // 회원 저장소의 메시지(스냅샷 매핑, 쓰기 실패)를 남길 곳, 컴포넌트 스캔으로 등록된 경우에만 주입된다.
+    @Autowired(required = false)
+    private AsyncLogWriter asyncLogWriter;
+
+    // 클래스패스의 할인 규칙 파일 (application.properties), 지정하지 않으면 RateDiscountPolicy 를 사용한다.
+    @Value("${discount.rules-location:}")
+    private String discountRulesLocation;
+    // 실행 중에 바뀌면 다시 읽을 할인 규칙 파일, 지정하지 않으면 감시하지 않는다.
+    @Value("${discount.rules-watch-file:}")
+    private String discountRulesWatchFile;
+    @Value("${discount.rules-watch-interval-ms:1000}")
+    private long discountRulesWatchIntervalMillis;
+
+    // 할인 결과 캐시 (CachingDiscountPolicy), 사용하지 않으면 주문 서비스가 할인 정책을 직접 호출한다.
+    // 캐시 조회도 호출마다 빈도 기록, 조회 횟수 집계, 버전 확인 비용이 드므로 계산이 비싼 정책일 때만 켠다.
+    @Value("${discount.cache.enabled:false}")
+    private boolean discountCacheEnabled;
+    @Value("${discount.cache.capacity:1024}")
+    private int discountCacheCapacity;
+    @Value("${discount.cache.eviction:CLOCK}")
+    private CachingDiscountPolicy.Eviction discountCacheEviction;
+
     // AppConfig는 애플리케이션의 실제 동작에 필요한 구현 객체를 생성한다.
     // AppConfig는 생성한 객체 인스턴스의 참조(래퍼런스)를 생성자를 통해서 주입(연결) 해준다.
     // AppConfig가 MemberServiceImpl, MemoryMemberRepository를 생성한다
@@ -79,17 +133,48 @@ public class AppConfig {
     @Bean
     public MemberRepository memberRepository() {
         System.out.println("call AppConfig.memberRepository");
-        return new MemoryMemberRepository();
+        // 여러 스레드가 동시에 join 해도 안전한 저장소로 교체
+        MemberRepository memberRepository = memberRepositoryPartitions > 0
+                ? new ShardedMemberRepository(memberRepositoryPartitions, memberRepositoryPartitionExecutors)
+                : new ConcurrentMemberRepository();
+        // 시작할 때 스냅샷을 매핑해서 그대로 조회하고(이후 저장은 감싼 저장소로), 주기적으로 그리고 컨테이너가 종료될 때(close) 다시 쓴다.
+        if (!isEmpty(memberSnapshotFile)) {
+            try {
+                memberRepository = new SnapshotMemberRepository(memberRepository, Paths.get(memberSnapshotFile),
+                        memberSnapshotIntervalMillis, asyncLogWriter);
+            } catch (IOException e) {
+                throw new UncheckedIOException("failed to load member snapshot: " + memberSnapshotFile, e);
+            }
+        }
+        // join 이 디스크에 기록(force)된 뒤에 반환되도록 로그로 감싼다. 시작할 때 로그를 다시 읽어서(replay) 스냅샷 이후의 회원을 채운다.
+        if (!isEmpty(memberWalFile)) {
+            try {
+                memberRepository = new WriteAheadLogMemberRepository(memberRepository, Paths.get(memberWalFile));
+            } catch (IOException e) {
+                throw new UncheckedIOException("failed to open member write-ahead log: " + memberWalFile, e);
+            }
+        }
+        return memberRepository;
     }
     @Bean
     public OrderService orderService() {
         System.out.println("call AppConfig.orderService");
-        return new OrderServiceImpl(memberRepository(), discountPolicy());
+        // 캐시는 빈으로 등록하지 않고 여기서만 감싼다. DiscountPolicy 타입 빈은 discountPolicy 하나로 유지한다.
+        DiscountPolicy discountPolicy = discountPolicy();
+        if (discountCacheEnabled) {
+            discountPolicy = new CachingDiscountPolicy(discountPolicy, discountCacheCapacity, discountCacheEviction);
+        }
+        return new OrderServiceImpl(memberRepository(), discountPolicy);
     }
     @Bean
     public DiscountPolicy discountPolicy() {
 //        return new FixDiscountPolicy();
-        return new RateDiscountPolicy();
+//        return new RateDiscountPolicy();
+        // 실행 중에 정책을 바꿀 수 있도록 ReloadableDiscountPolicy 로 감싼다.
+        return new ReloadableDiscountPolicy(discountRulesLocation, discountRulesWatchFile, discountRulesWatchIntervalMillis);
+    }
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
     }
 
 }
@@ -0,0 +1,50 @@
+package hello.core;
+
+import hello.core.common.ParallelInitBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+public final class AppContexts {
+
+    // AppConfig 로 스프링 컨테이너를 만든다.
+    // 기본은 AnnotationConfigApplicationContext 가 실행할 때 AppConfig 를 파싱하고 CGLIB 로 상속받은 클래스를 만든다.
+    // -Dspring.aot.enabled=true 로 실행하면 컴파일할 때 만든 AppConfig__BeanRegistrar 로 빈을 등록한다.
+    // 설정 클래스 파싱과 CGLIB 클래스 생성이 없어서 시작이 빠르고, @Bean 메서드끼리 호출해도 같은 싱글톤을 받는다.
+    // -Dbean.init.parallelism=4 처럼 실행하면 싱글톤 초기화 콜백을 스레드 4개로 병렬 실행하고 빈별 타임라인을 출력한다. (ParallelInitBeanFactory)
+
+    public static final String AOT_ENABLED = "spring.aot.enabled";
+    public static final String INIT_PARALLELISM = "bean.init.parallelism";
+
+    private AppContexts() {
+    }
+
+    public static ConfigurableApplicationContext appConfig() {
+        int parallelism = Integer.getInteger(INIT_PARALLELISM, 0);
+        DefaultListableBeanFactory beanFactory = parallelism > 0 ? new ParallelInitBeanFactory(parallelism) : new DefaultListableBeanFactory();
+        ConfigurableApplicationContext ac = Boolean.getBoolean(AOT_ENABLED) ? proxyFreeAppConfig(beanFactory) : appConfig(beanFactory);
+        if (beanFactory instanceof ParallelInitBeanFactory) {
+            ((ParallelInitBeanFactory) beanFactory).getTimeline().print(System.out);
+        }
+        return ac;
+    }
+
+    public static AnnotationConfigApplicationContext appConfig(DefaultListableBeanFactory beanFactory) {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(beanFactory);
+        ac.register(AppConfig.class);
+        ac.refresh();
+        return ac;
+    }
+
+    public static GenericApplicationContext proxyFreeAppConfig() {
+        return proxyFreeAppConfig(new DefaultListableBeanFactory());
+    }
+
+    public static GenericApplicationContext proxyFreeAppConfig(DefaultListableBeanFactory beanFactory) {
+        GenericApplicationContext ac = new GenericApplicationContext(beanFactory);
+        AppConfig__BeanRegistrar.registerBeans(ac);
+        ac.refresh();
+        return ac;
+    }
+}
@@ -3,8 +3,10 @@ package hello.core;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.PropertySource;
 
 @Configuration
+@PropertySource("classpath:application.properties")
 // @ComponentScan은 @Component가 붙은 모든 클래스를 스프링 빈으로 등록한다.
 // 이때 스프링 빈의 기본 이름은 클래스명을 사용하되 맨 앞글자만 소문자를 사용한다.
 @ComponentScan(
@@ -20,5 +22,11 @@ import org.springframework.context.annotation.FilterType;
         // 보통 설정 정보를 컴포넌트 스캔 대상에서 제외하지는 않지만, 기존 예제 코드를 최대한 남기고 유지하기 위해서 이 방법을 선택
         excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Configuration.class)
 )
+// 컴포넌트 인덱스
+// 빌드할 때 spring-context-indexer 가 @Component 가 붙은 클래스 목록을 META-INF/spring.components 로 만들어 둔다.
+// 인덱스가 있으면 스캔할 때 클래스패스의 모든 클래스 파일을 읽지 않고, 인덱스에 적힌 후보 클래스만 읽는다.
+// 그래서 시작 시간이 클래스패스 크기가 아니라 컴포넌트 수에 비례한다.
+// 인덱스를 쓰지 않고 예전처럼 전부 스캔하려면 -Dspring.index.ignore=true 로 실행한다.
+// 주의: 인덱스가 있으면 인덱스에 없는 @Component 는 찾지 못한다. IDE 빌드처럼 어노테이션 프로세서를 거치지 않은 빌드에서는 직접 확인이 필요하다.
 public class AutoAppConfig {
 }
\ No newline at end of file
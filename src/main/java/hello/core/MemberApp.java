@@ -5,7 +5,6 @@ import hello.core.member.Member;
 import hello.core.member.MemberService;
 import hello.core.member.MemberServiceImpl;
 import org.springframework.context.ApplicationContext;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 public class MemberApp {
     public static void main(String[] args) {
@@ -14,7 +13,8 @@ public class MemberApp {
         
         // AppConfig의 설정정보를 스프링이 다 객체를 생성하여 관리를 해줌
         // 스프링컨테이너에 Bean으로 된것들을 등록
-        ApplicationContext applicationContext = new AnnotationConfigApplicationContext(AppConfig.class);
+        // -Dspring.aot.enabled=true 로 실행하면 CGLIB 프록시 없이 만든다. (AppContexts 참고)
+        ApplicationContext applicationContext = AppContexts.appConfig();
         MemberService memberService = applicationContext.getBean("memberService", MemberService.class);
         // Ctrl + Alt + V
         Member member = new Member(1L, "memberA", Grade.VIP);
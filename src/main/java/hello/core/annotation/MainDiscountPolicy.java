@@ -1,6 +1,7 @@
 package hello.core.annotation;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Indexed;
 
 import java.lang.annotation.*;
 
@@ -9,5 +10,8 @@ import java.lang.annotation.*;
 @Inherited
 @Documented
 @Qualifier("mainDiscountPolicy")
+// 컴포넌트 인덱스(META-INF/spring.components)에 이 한정자가 붙은 클래스도 함께 기록한다.
+// 클래스패스를 스캔하지 않고 CandidateComponentsIndex 로 한정자가 붙은 빈을 찾을 수 있다.
+@Indexed
 public @interface MainDiscountPolicy {
 }
@@ -0,0 +1,298 @@
+package hello.core.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+public class AsyncLogWriter {
+
+    // MyLogger 가 사용하는 비동기 로그 출력기
+    // System.out.println 은 synchronized 라서 요청 스레드들이 모두 표준 출력 하나에 줄을 서고, I/O 가 끝날 때까지 기다린다.
+    // 여기서는 요청 스레드는 링 버퍼의 칸에 메시지만 써두고 바로 돌아가고, 전용 스레드 하나가 모아서 FileChannel 로 한 번에 쓴다.
+
+    // 링 버퍼 (여러 생산자, 소비자 하나)
+    // 생산자는 tail 을 CAS 로 하나 올려서 칸 번호(sequence)를 받는다. 락을 잡지 않는다.
+    // 받은 칸의 StringBuilder 에 메시지를 쓰고, published[칸] 에 sequence 를 release 로 기록해서 다 썼다고 알린다.
+    // 소비자는 head 부터 published 를 acquire 로 확인하면서, 다 써진 칸을 UTF-8 로 바꿔 출력 버퍼에 모은다.
+    // 칸을 다 읽으면 head 를 올려서 생산자가 다시 쓸 수 있게 한다.
+    // 칸의 StringBuilder 와 출력용 ByteBuffer 는 계속 재사용하므로 메시지마다 문자열을 새로 만들지 않는다.
+
+    // 버퍼가 가득 찼을 때 (OverflowPolicy)
+    // DROP  : 메시지를 버리고 dropCount 를 올린다. 요청 스레드는 절대 기다리지 않는다. (기본)
+    // BLOCK : 소비자가 칸을 비울 때까지 기다린다. 로그를 잃으면 안 될 때 사용한다.
+    //         잠깐 돌면서 기다리다가(spin) 양보(yield)하고, 그래도 자리가 없으면 점점 길게 잠든다(park). 최대 MAX_BLOCK_PARK_NANOS
+    //         소비자 스레드가 없거나(start 전) 닫힌 뒤에는 비워줄 스레드가 없으므로 기다리지 않고 버린다.
+    // 닫힌(close) 뒤에 남기는 로그는 정책과 상관없이 버린다.
+
+    // 소비자 잠들기/깨우기
+    // 소비자는 sleeping 을 세운 뒤 다음 칸을 한 번 더 확인하고 시간 제한 없이 잠든다.
+    // 생산자는 칸을 기록한 뒤 sleeping 을 확인해서 깨운다. 두 쪽 모두 volatile 로 쓰고 읽으므로 한 쪽은 반드시 상대를 본다.
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int BLOCK_SPINS = 100;
+    private static final int BLOCK_YIELDS = 10;
+    private static final long MAX_BLOCK_PARK_NANOS = 1_000_000;
+
+    private final StringBuilder[] slots;
+    private final long[] published;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final FileChannel channel;
+    private final boolean closeChannel;
+    private final ByteBuffer output = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+
+    private final LongAdder dropCount = new LongAdder();
+    private volatile long writeCount;
+    private volatile boolean running;
+    private volatile boolean closed;
+    private volatile boolean sleeping;
+    private volatile Thread consumer;
+
+    // file 이 비어있으면 표준 출력으로 쓴다.
+    @Autowired
+    public AsyncLogWriter(@Value("${logging.async.file:}") String file,
+                          @Value("${logging.async.buffer-size:8192}") int bufferSize,
+                          @Value("${logging.async.overflow:DROP}") OverflowPolicy overflowPolicy) {
+        this(file == null || file.isEmpty() ? null : Paths.get(file), bufferSize, overflowPolicy);
+    }
+
+    public AsyncLogWriter(Path file, int bufferSize, OverflowPolicy overflowPolicy) {
+        if (bufferSize < 1 || bufferSize > 1 << 24) {
+            throw new IllegalArgumentException("bufferSize must be between 1 and " + (1 << 24) + ": " + bufferSize);
+        }
+        int capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.slots = new StringBuilder[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new StringBuilder(128);
+        }
+        this.published = new long[capacity];
+        Arrays.fill(published, -1L);
+        this.mask = capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+
+        try {
+            if (file == null) {
+                // 표준 출력은 이 객체가 닫으면 안 된다.
+                this.channel = new FileOutputStream(FileDescriptor.out).getChannel();
+                this.closeChannel = false;
+            } else {
+                this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                this.closeChannel = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open log file: " + file, e);
+        }
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::consume, "async-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    // 남은 로그를 모두 쓰고 소비자 스레드를 멈춘다.
+    @PreDestroy
+    public synchronized void close() {
+        closed = true;
+        if (consumer != null) {
+            running = false;
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumer = null;
+        }
+        // 닫기 전에 칸을 받은 생산자가 아직 쓰는 중이면 다 쓸 때까지 기다린다. (칸을 받은 뒤에는 기다리는 일이 없다)
+        drain();
+        while (head != tail.get()) {
+            Thread.yield();
+            drain();
+        }
+        if (closeChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // "[uuid][requestURL] message" 형식으로 한 줄을 남긴다. requestURL 이 null 이면 "[uuid] message"
+    // @return 버퍼가 가득 찼거나 닫혀서 버렸으면 false
+    public boolean log(String uuid, String requestURL, String message) {
+        long sequence = claim();
+        if (sequence < 0) {
+            dropCount.increment();
+            return false;
+        }
+        StringBuilder slot = slots[(int) sequence & mask];
+        slot.setLength(0);
+        slot.append('[').append(uuid).append(']');
+        if (requestURL != null) {
+            slot.append('[').append(requestURL).append(']');
+        }
+        slot.append(' ').append(message).append('\n');
+        // sleeping 을 읽기 전에 기록이 보이도록 volatile 로 쓴다. (release 만으로는 뒤의 읽기가 앞당겨질 수 있다)
+        PUBLISHED.setVolatile(published, (int) sequence & mask, sequence);
+        if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    public long getDropCount() {
+        return dropCount.sum();
+    }
+
+    // 파일에 쓴 줄 수
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    // @return 받은 칸 번호, 가득 차서 버려야 하거나 닫혔으면 -1
+    private long claim() {
+        int waits = 0;
+        while (true) {
+            if (closed) {
+                return -1;
+            }
+            long t = tail.get();
+            if (t - head > mask) {
+                if (overflowPolicy == OverflowPolicy.DROP || !running) {
+                    return -1;
+                }
+                awaitSpace(waits++);
+                continue;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                return t;
+            }
+        }
+    }
+
+    // BLOCK 정책에서 자리가 날 때까지 기다리는 한 번, spin -> yield -> park 순으로 점점 길게 기다린다.
+    private void awaitSpace(int waits) {
+        if (waits < BLOCK_SPINS) {
+            Thread.onSpinWait();
+        } else if (waits < BLOCK_SPINS + BLOCK_YIELDS) {
+            Thread.yield();
+        } else {
+            int shift = Math.min(waits - BLOCK_SPINS - BLOCK_YIELDS, 10);
+            LockSupport.parkNanos(this, Math.min(1_000L << shift, MAX_BLOCK_PARK_NANOS));
+        }
+    }
+
+    private void consume() {
+        while (running) {
+            if (!drain()) {
+                sleeping = true;
+                // 잠들기 직전에 들어온 메시지는 한 번 더 확인한다. 이후에 들어온 메시지는 생산자가 깨워준다.
+                if (running && (long) PUBLISHED.getVolatile(published, (int) head & mask) != head) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+            }
+        }
+    }
+
+    // 지금까지 다 써진 칸을 모두 출력한다.
+    // @return 출력한 칸이 있으면 true
+    private boolean drain() {
+        long sequence = head;
+        long lines = 0;
+        while (isReady(sequence)) {
+            StringBuilder slot = slots[(int) sequence & mask];
+            encode(slot);
+            sequence++;
+            lines++;
+            head = sequence;
+        }
+        flush();
+        writeCount += lines;
+        return lines > 0;
+    }
+
+    private boolean isReady(long sequence) {
+        return (long) PUBLISHED.getAcquire(published, (int) sequence & mask) == sequence;
+    }
+
+    // UTF-8 로 바꾸면서 출력 버퍼에 바로 쓴다. (CharsetEncoder 나 String.getBytes 처럼 중간 객체를 만들지 않는다)
+    private void encode(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (output.remaining() < 4) {
+                flush();
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                output.put((byte) c);
+            } else if (c < 0x800) {
+                output.put((byte) (0xC0 | c >> 6));
+                output.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                output.put((byte) (0xF0 | codePoint >> 18));
+                output.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                output.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                output.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                output.put((byte) '?');
+            } else {
+                output.put((byte) (0xE0 | c >> 12));
+                output.put((byte) (0x80 | c >> 6 & 0x3F));
+                output.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private void flush() {
+        output.flip();
+        try {
+            while (output.hasRemaining()) {
+                channel.write(output);
+            }
+        } catch (IOException e) {
+            // 로그 출력 실패로 애플리케이션을 멈추지 않는다. 이번 묶음은 버린다.
+            dropCount.increment();
+        } finally {
+            output.clear();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package hello.core.common;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BeanInitTimeline {
+
+    // ParallelInitBeanFactory 가 빈마다 생성(create)과 초기화(init) 시간을 기록한다.
+    // 시간은 모두 컨테이너가 싱글톤을 만들기 시작한 시점(origin)부터의 나노초
+    // create : 생성자 호출과 의존관계 주입, self 는 그 안에서 만든 다른 빈의 시간을 뺀 값
+    // init   : @PostConstruct, afterPropertiesSet, initMethod (병렬 단계에서 실행한 빈만 기록한다)
+
+    public static final class Entry {
+
+        private final String beanName;
+        private final String createThread;
+        private final long createStart;
+        private final long createEnd;
+        private final long createSelf;
+        private volatile String initThread;
+        private volatile long initStart = -1;
+        private volatile long initEnd = -1;
+
+        Entry(String beanName, String createThread, long createStart, long createEnd, long createSelf) {
+            this.beanName = beanName;
+            this.createThread = createThread;
+            this.createStart = createStart;
+            this.createEnd = createEnd;
+            this.createSelf = createSelf;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public String getCreateThread() {
+            return createThread;
+        }
+
+        public long getCreateStart() {
+            return createStart;
+        }
+
+        public long getCreateEnd() {
+            return createEnd;
+        }
+
+        public long getCreateSelf() {
+            return createSelf;
+        }
+
+        // 초기화를 병렬 단계에서 실행하지 않았으면 null
+        public String getInitThread() {
+            return initThread;
+        }
+
+        // 초기화를 병렬 단계에서 실행하지 않았으면 -1
+        public long getInitStart() {
+            return initStart;
+        }
+
+        public long getInitEnd() {
+            return initEnd;
+        }
+
+        // 빈을 바로 쓸 수 있게 된 시점
+        public long getReadyAt() {
+            return initEnd >= 0 ? initEnd : createEnd;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long origin = System.nanoTime();
+    private volatile long readyAt = -1;
+    private volatile int parallelism;
+
+    void start(int parallelism) {
+        entries.clear();
+        this.parallelism = parallelism;
+        this.readyAt = -1;
+        this.origin = System.nanoTime();
+    }
+
+    void created(String beanName, long startNanos, long endNanos, long selfNanos) {
+        entries.putIfAbsent(beanName, new Entry(beanName, Thread.currentThread().getName(),
+                startNanos - origin, endNanos - origin, selfNanos));
+    }
+
+    void initialized(String beanName, long startNanos, long endNanos) {
+        Entry entry = entries.get(beanName);
+        if (entry != null) {
+            entry.initThread = Thread.currentThread().getName();
+            entry.initStart = startNanos - origin;
+            entry.initEnd = endNanos - origin;
+        }
+    }
+
+    void ready(long nanos) {
+        readyAt = nanos - origin;
+    }
+
+    // 생성 시작 순서
+    public List<Entry> getEntries() {
+        List<Entry> list = new ArrayList<>(entries.values());
+        list.sort(Comparator.comparingLong(Entry::getCreateStart));
+        return list;
+    }
+
+    public Entry getEntry(String beanName) {
+        return entries.get(beanName);
+    }
+
+    // 싱글톤 생성과 초기화가 모두 끝난 시점, 아직 끝나지 않았으면 -1
+    public long getReadyAt() {
+        return readyAt;
+    }
+
+    // 초기화 시간의 합, 한 스레드에서 차례로 초기화했다면 걸렸을 시간
+    public long getTotalInitNanos() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.initStart >= 0) {
+                total += entry.initEnd - entry.initStart;
+            }
+        }
+        return total;
+    }
+
+    public void print(PrintStream out) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("[bean init timeline] ready = %.1fms, init total = %.1fms, parallelism = %d",
+                readyAt / 1e6, getTotalInitNanos() / 1e6, parallelism));
+        for (Entry entry : getEntries()) {
+            sb.append(String.format("%n  %-32s create %8.1f ~ %8.1fms (self %6.1fms) [%s]",
+                    entry.beanName, entry.createStart / 1e6, entry.createEnd / 1e6, entry.createSelf / 1e6, entry.createThread));
+            if (entry.initStart >= 0) {
+                sb.append(String.format("  init %8.1f ~ %8.1fms [%s]", entry.initStart / 1e6, entry.initEnd / 1e6, entry.initThread));
+            }
+        }
+        out.println(sb);
+    }
+}
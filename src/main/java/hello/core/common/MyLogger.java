@@ -1,15 +1,11 @@
 package hello.core.common;
 
-import org.springframework.context.annotation.Scope;
-import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
-import javax.annotation.PreDestroy;
-import java.util.UUID;
+import java.util.function.Supplier;
 
 @Component
-@Scope(value = "request", proxyMode = ScopedProxyMode.TARGET_CLASS)
+// 이전에는 @Scope(value = "request", proxyMode = ScopedProxyMode.TARGET_CLASS) 를 사용했다.
 // proxyMode = ScopedProxyMode.TARGET_CLASS 추가를 해주면
 // 적용 대상이 인터페이스가 아닌 클래스 면 TARGET_CLASS
 // 적용 대상이 인터페이스면 INTERFACES 선택
@@ -21,27 +17,101 @@ import java.util.UUID;
 // 결과를 확인 해보면 우리가 등록한 순수한 MyLogger 클래스가 아니라 $$CGLIB 클래스가 대신 등록된 것을 확인 할 수 있다.
 // 그리고 스프링 컨테이너에 myLogger라는 이름으로 진짜 대신에 이 가짜 프록시 객체를 등록한다.
 // 그래서 의존관계 주입도 이 가짜 프록시 객체가 주입된다.
+
+// 문제 !
+// log 를 호출할 때마다 프록시 -> RequestContextHolder 조회 -> request scope 맵 조회를 거치고,
+// 요청마다 UUID.randomUUID() 가 SecureRandom 을 사용한다.
+
+// 지금은 싱글톤 빈이고, 요청 정보는 스레드마다 하나씩 있는 칸(ThreadLocal)에 둔다.
+// MyLoggerFilter 가 요청이 시작될 때 칸을 채우고(begin), 끝날 때 비운다(end). 요청 하나는 한 스레드에서 처리되기 때문이다.
+// 주입받는 쪽(LogDemoController, LogDemoService)은 예전과 똑같이 myLogger.log(...) 를 호출하면 된다.
 public class MyLogger {
 
-    private String uuid;
-    private String requestURL;
+    // 스레드마다 하나씩 만들어서 요청이 바뀌어도 재사용한다.
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+
+    // 요청 밖(테스트, 배치 등)에서 남긴 로그의 uuid 자리
+    private static final String NO_REQUEST = "-";
+
+    private final AsyncLogWriter logWriter;
+
+    static final class Context {
+        String uuid;
+        String requestURL;
+    }
+
+    public MyLogger(AsyncLogWriter logWriter) {
+        this.logWriter = logWriter;
+    }
+
+    // 요청 시작 (MyLoggerFilter)
+    public void begin(String requestURL) {
+        Context context = CONTEXT.get();
+        context.uuid = RequestIdGenerator.next();
+        context.requestURL = requestURL;
+        logWriter.log(context.uuid, null, "request scope bean create: " + this);
+    }
+
+    // 요청 끝 (MyLoggerFilter)
+    public void end() {
+        Context context = CONTEXT.get();
+        logWriter.log(context.uuid == null ? NO_REQUEST : context.uuid, null, "request scope bean close: " + this);
+        context.uuid = null;
+        context.requestURL = null;
+    }
+
+    // 요청을 비동기로 넘기고 요청 스레드가 먼저 돌아갈 때 (MyLoggerFilter)
+    // close 로그는 남기지 않고 이 스레드의 칸만 비운다. close 로그는 비동기 처리가 끝날 때 남긴다.
+    public void detach() {
+        Context context = CONTEXT.get();
+        context.uuid = null;
+        context.requestURL = null;
+    }
+
+    // 다른 스레드(AsyncWorkExecutor 등)로 작업을 넘길 때 사용한다.
+    // 지금 스레드의 요청 정보를 복사해두고, 작업을 실행하는 스레드에 잠시 채웠다가 끝나면 원래대로 돌려놓는다.
+    public Runnable wrap(Runnable task) {
+        Supplier<Void> wrapped = wrap(() -> {
+            task.run();
+            return null;
+        });
+        return wrapped::get;
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        Context captured = CONTEXT.get();
+        String uuid = captured.uuid;
+        String requestURL = captured.requestURL;
+        return () -> {
+            Context context = CONTEXT.get();
+            String previousUuid = context.uuid;
+            String previousRequestURL = context.requestURL;
+            context.uuid = uuid;
+            context.requestURL = requestURL;
+            try {
+                return task.get();
+            } finally {
+                context.uuid = previousUuid;
+                context.requestURL = previousRequestURL;
+            }
+        };
+    }
 
     public void setRequestURL(String requestURL) {
-        this.requestURL = requestURL;
+        CONTEXT.get().requestURL = requestURL;
     }
 
     public void log(String message) {
-        System.out.println("[" + uuid + "]" + "[" + requestURL + "] " + message);
+        Context context = CONTEXT.get();
+        logWriter.log(context.uuid == null ? NO_REQUEST : context.uuid, context.requestURL, message);
     }
 
-    @PostConstruct
-    public void init() {
-        uuid = UUID.randomUUID().toString();
-        System.out.println("[" + uuid + "] request scope bean create: " + this);
+    // 현재 요청의 uuid, 요청 밖이면 null
+    public String getUuid() {
+        return CONTEXT.get().uuid;
     }
 
-    @PreDestroy
-    public void close() {
-        System.out.println("[" + uuid + "] request scope bean close: " + this);
+    public String getRequestURL() {
+        return CONTEXT.get().requestURL;
     }
 }
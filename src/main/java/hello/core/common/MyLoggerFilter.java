@@ -0,0 +1,67 @@
+package hello.core.common;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class MyLoggerFilter extends OncePerRequestFilter {
+
+    // 요청마다 MyLogger 의 요청 정보를 한 번만 채우고, 요청이 끝나면 비운다.
+    // request scope 빈의 생성(@PostConstruct)과 소멸(@PreDestroy)이 하던 일을 대신한다.
+
+    private final MyLogger myLogger;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        myLogger.begin(request.getRequestURL().toString());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // 비동기 요청(LogDemoController.logDemoAsync 등)은 응답이 끝날 때 close 로그를 남긴다.
+                request.getAsyncContext().addListener(new EndOnComplete(myLogger.wrap(myLogger::end)));
+                myLogger.detach();
+            } else {
+                myLogger.end();
+            }
+        }
+    }
+
+    private static class EndOnComplete implements AsyncListener {
+
+        private final Runnable end;
+
+        EndOnComplete(Runnable end) {
+            this.end = end;
+        }
+
+        // 타임아웃이나 오류가 나도 마지막에는 onComplete 가 호출된다.
+        @Override
+        public void onComplete(AsyncEvent event) {
+            end.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
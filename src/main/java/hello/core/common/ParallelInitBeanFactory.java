@@ -0,0 +1,273 @@
+package hello.core.common;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.SmartFactoryBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.InitDestroyAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelInitBeanFactory extends DefaultListableBeanFactory {
+
+    // 싱글톤 초기화 콜백을 스레드 풀에서 병렬로 실행하는 BeanFactory
+    // 기본 컨테이너는 refresh 할 때 싱글톤을 하나씩 만들고, 만들 때마다 @PostConstruct (NetworkClient.init 의 connect, call 같은 일)를 main 스레드에서 바로 실행한다.
+    // 그래서 시작 시간이 모든 초기화 시간의 합이 된다.
+
+    // 동작
+    // 1. 싱글톤을 기존처럼 하나씩 만들고 의존관계를 주입한다. 이때 초기화 콜백(@PostConstruct, afterPropertiesSet, initMethod)은 실행하지 않고 모아둔다.
+    //    스프링 5 는 싱글톤을 만드는 동안 레지스트리 전체 락을 잡기 때문에 생성 자체는 병렬로 할 수 없다. 생성은 보통 가볍고, 무거운 일은 초기화 콜백에 있다.
+    // 2. 생성이 끝나면 실제 주입된 의존관계(getDependenciesForBean)로 그래프를 만들고, 의존하는 빈의 초기화가 모두 끝난 빈부터 스레드 풀에서 초기화한다.
+    //    서로 관계없는 빈은 동시에 초기화되므로, 시작 시간은 합이 아니라 가장 긴 의존 경로(critical path)만큼 걸린다.
+    //    의존관계는 주입할 때, @Bean 메서드끼리 호출할 때(CGLIB 프록시), @DependsOn 에서 registerDependentBean 으로 기록된다.
+    //    @ProxyFreeConfiguration 으로 만든 <설정 클래스>__BeanRegistrar 도 같은 곳에서 기록하므로 AOT 모드(AppContexts.proxyFreeAppConfig)에서도 순서가 지켜진다.
+    //    생성 단계에서 직접 getBean 으로 꺼낸 빈처럼 기록되지 않는 관계는 순서를 보장하지 않는다. 필요하면 @DependsOn 을 붙인다.
+    // 3. 모든 초기화가 끝난 뒤에 SmartInitializingSingleton 콜백을 부르고 refresh 를 마친다. refresh 가 끝나면 모든 빈이 기존과 같이 초기화된 상태다.
+
+    // @Lazy 빈은 여기서 만들지 않고 처음 조회할 때 만든다. (기존과 같다) 이때는 초기화도 바로 실행한다.
+    // 빈마다 생성, 초기화 시간은 BeanInitTimeline (빈 이름 beanInitTimeline) 에 남는다.
+
+    // 주의
+    // 생성자나 @Bean 메서드 안에서 주입받은 빈을 바로 사용하면, 그 빈은 아직 초기화 전일 수 있다.
+    // 초기화 콜백끼리는 여러 스레드에서 동시에 실행되므로 공유 상태를 건드린다면 스레드 안전해야 한다.
+    // 후처리기(BeanPostProcessor)와 초기화 콜백의 순서가 기본 컨테이너와 다르다.
+    //   기본     : 초기화 전 후처리기 -> @PostConstruct -> 나머지 초기화 전 후처리기 -> afterPropertiesSet, initMethod -> 초기화 후 후처리기
+    //   여기서는 : @PostConstruct 를 뺀 초기화 전 후처리기 -> 초기화 후 후처리기 -> (나중에 병렬로) @PostConstruct -> afterPropertiesSet, initMethod
+    //   그래서 후처리기는 초기화 콜백이 끝나지 않은 빈을 받는다. 빈의 초기화된 상태를 보고 판단하는 후처리기는 이 BeanFactory 와 함께 쓰면 안 된다.
+    //   후처리기까지 미루지 않는 이유: 초기화 후 후처리기는 빈을 프록시 등으로 바꿔서 돌려줄 수 있고, 컨테이너는 생성 단계에서 그 최종 객체를 등록하고 주입해야 한다.
+    //   감싸기만 하는 후처리기(AOP 프록시 등)는 안의 빈이 나중에 초기화되어도 같은 객체를 가리키므로 영향이 없다. (ParallelInitBeanFactoryTest.postProcessorOrder 참고)
+
+    public static final String TIMELINE_BEAN_NAME = "beanInitTimeline";
+
+    private static final class DeferredInit {
+        final String beanName;
+        Object bean;
+        final List<BeanPostProcessor> initProcessors = new ArrayList<>();
+        Object initMethodBean;
+        RootBeanDefinition mbd;
+
+        DeferredInit(String beanName) {
+            this.beanName = beanName;
+        }
+    }
+
+    private final int parallelism;
+    private final BeanInitTimeline timeline = new BeanInitTimeline();
+    private final ThreadLocal<Deque<long[]>> creating = ThreadLocal.withInitial(ArrayDeque::new);
+    // 생성 단계에서만 사용하고, 생성 단계는 refresh 스레드 하나에서만 진행된다.
+    private final Map<String, DeferredInit> deferred = new LinkedHashMap<>();
+    private volatile Thread deferringThread;
+
+    public ParallelInitBeanFactory(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        registerSingleton(TIMELINE_BEAN_NAME, timeline);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public BeanInitTimeline getTimeline() {
+        return timeline;
+    }
+
+    // DefaultListableBeanFactory.preInstantiateSingletons 와 같은 순서로 만들되, 초기화 콜백을 모아서 병렬로 실행한 뒤에 SmartInitializingSingleton 을 부른다.
+    @Override
+    public void preInstantiateSingletons() throws BeansException {
+        timeline.start(parallelism);
+        List<String> beanNames = List.of(getBeanDefinitionNames());
+
+        deferringThread = Thread.currentThread();
+        try {
+            for (String beanName : beanNames) {
+                RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+                if (bd.isAbstract() || !bd.isSingleton() || bd.isLazyInit()) {
+                    continue;
+                }
+                if (isFactoryBean(beanName)) {
+                    Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+                    if (bean instanceof SmartFactoryBean && ((SmartFactoryBean<?>) bean).isEagerInit()) {
+                        getBean(beanName);
+                    }
+                } else {
+                    getBean(beanName);
+                }
+            }
+        } finally {
+            deferringThread = null;
+        }
+
+        List<DeferredInit> inits = new ArrayList<>(deferred.values());
+        deferred.clear();
+        initializeInParallel(inits);
+        timeline.ready(System.nanoTime());
+
+        for (String beanName : beanNames) {
+            Object singleton = getSingleton(beanName);
+            if (singleton instanceof SmartInitializingSingleton) {
+                ((SmartInitializingSingleton) singleton).afterSingletonsInstantiated();
+            }
+        }
+    }
+
+    @Override
+    protected Object createBean(String beanName, RootBeanDefinition mbd, Object[] args) throws BeanCreationException {
+        Deque<long[]> stack = creating.get();
+        long[] nested = new long[1];
+        stack.push(nested);
+        long start = System.nanoTime();
+        try {
+            return super.createBean(beanName, mbd, args);
+        } finally {
+            long end = System.nanoTime();
+            stack.pop();
+            if (!stack.isEmpty()) {
+                stack.peek()[0] += end - start;
+            }
+            if (mbd.isSingleton()) {
+                timeline.created(beanName, start, end, end - start - nested[0]);
+            }
+        }
+    }
+
+    // @PostConstruct 는 InitDestroyAnnotationBeanPostProcessor(CommonAnnotationBeanPostProcessor) 가 실행하므로, 그 후처리기만 빼두었다가 나중에 실행한다.
+    @Override
+    public Object applyBeanPostProcessorsBeforeInitialization(Object existingBean, String beanName) throws BeansException {
+        if (!isDeferred(beanName, existingBean)) {
+            return super.applyBeanPostProcessorsBeforeInitialization(existingBean, beanName);
+        }
+        DeferredInit init = deferred.computeIfAbsent(beanName, DeferredInit::new);
+        init.bean = existingBean;
+        Object result = existingBean;
+        for (BeanPostProcessor processor : getBeanPostProcessors()) {
+            if (processor instanceof InitDestroyAnnotationBeanPostProcessor) {
+                init.initProcessors.add(processor);
+                continue;
+            }
+            Object current = processor.postProcessBeforeInitialization(result, beanName);
+            if (current == null) {
+                return result;
+            }
+            result = current;
+        }
+        return result;
+    }
+
+    // afterPropertiesSet, initMethod
+    @Override
+    protected void invokeInitMethods(String beanName, Object bean, RootBeanDefinition mbd) throws Throwable {
+        if (!isDeferred(beanName, bean)) {
+            super.invokeInitMethods(beanName, bean, mbd);
+            return;
+        }
+        DeferredInit init = deferred.computeIfAbsent(beanName, DeferredInit::new);
+        init.initMethodBean = bean;
+        init.mbd = mbd;
+    }
+
+    private boolean isDeferred(String beanName, Object bean) {
+        return deferringThread == Thread.currentThread()
+                && !(bean instanceof FactoryBean)
+                && containsBeanDefinition(beanName)
+                && getMergedLocalBeanDefinition(beanName).isSingleton();
+    }
+
+    private void initializeInParallel(List<DeferredInit> inits) {
+        if (inits.isEmpty()) {
+            return;
+        }
+        Map<String, DeferredInit> byName = new HashMap<>();
+        for (DeferredInit init : inits) {
+            byName.put(init.beanName, init);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, inits.size()), r -> {
+            Thread thread = new Thread(r, "bean-init-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+            for (DeferredInit init : inits) {
+                schedule(init, byName, futures, new HashSet<>(), executor);
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BeansException) {
+                throw (BeansException) cause;
+            }
+            throw new BeanCreationException("parallel bean initialization failed", cause);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // 이 빈이 의존하는 빈들의 초기화가 모두 끝나면 이 빈을 초기화하는 작업을 만든다.
+    // 순환 참조는 먼저 방문한 쪽에서 끊는다. (기존 컨테이너에서도 순환 참조의 한쪽은 초기화 전에 주입된다)
+    private CompletableFuture<Void> schedule(DeferredInit init, Map<String, DeferredInit> byName,
+                                             Map<String, CompletableFuture<Void>> futures, Set<String> visiting,
+                                             ExecutorService executor) {
+        CompletableFuture<Void> future = futures.get(init.beanName);
+        if (future != null) {
+            return future;
+        }
+        visiting.add(init.beanName);
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (String dependency : getDependenciesForBean(init.beanName)) {
+            DeferredInit dependencyInit = byName.get(dependency);
+            if (dependencyInit != null && !visiting.contains(dependency)) {
+                dependencies.add(schedule(dependencyInit, byName, futures, visiting, executor));
+            }
+        }
+        visiting.remove(init.beanName);
+        future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> initialize(init), executor);
+        futures.put(init.beanName, future);
+        return future;
+    }
+
+    private void initialize(DeferredInit init) {
+        long start = System.nanoTime();
+        try {
+            Object bean = init.bean;
+            for (BeanPostProcessor processor : init.initProcessors) {
+                Object current = processor.postProcessBeforeInitialization(bean, init.beanName);
+                if (current == null) {
+                    break;
+                }
+                bean = current;
+            }
+            if (init.mbd != null) {
+                super.invokeInitMethods(init.beanName, init.initMethodBean, init.mbd);
+            }
+        } catch (BeansException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new BeanCreationException(init.beanName, "Invocation of init method failed", e);
+        } finally {
+            timeline.initialized(init.beanName, start, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package hello.core.common;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class RequestIdGenerator {
+
+    // 로그 추적용 요청 id 생성기
+    // UUID.randomUUID() 는 SecureRandom 을 사용해서 느리고, 여러 스레드가 같은 SecureRandom 을 공유한다.
+    // 요청 id 는 추측하기 어려울 필요가 없으므로 스레드마다 따로 있는 ThreadLocalRandom 으로 만든다.
+    // 형식은 그대로 UUID(버전 4) 문자열이라 기존 로그를 읽는 쪽은 바뀌지 않는다.
+
+    private RequestIdGenerator() {
+    }
+
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = random.nextLong() & ~0xF000L | 0x4000L;                                  // 버전 4
+        long leastSigBits = random.nextLong() & ~0xC000000000000000L | 0x8000000000000000L;     // IETF variant
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+}
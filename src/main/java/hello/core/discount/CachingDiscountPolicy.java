@@ -0,0 +1,340 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CachingDiscountPolicy implements DiscountPolicy {
+
+    // 할인 결과를 (등급, 가격) 키로 저장해두는 DiscountPolicy 데코레이터
+    // 할인 금액은 회원 등급과 가격에만 의존하고, 실제 주문 가격은 몇 가지 상품 가격에 몰려 있어서 같은 계산이 반복된다.
+    // 규칙 테이블이나 외부 조회처럼 계산이 비싼 정책일수록 효과가 크다.
+
+    // 구조
+    // 키는 (등급 번호 << 32 | 가격) 하나의 long 이다. Long 박싱이나 엔트리 객체를 만들지 않고 long[], int[] 에 그대로 넣는다.
+    // 테이블은 WAYS 칸짜리 묶음(set) 여러 개로 나뉘고, 키는 해시로 정해진 묶음 안에서만 찾고 교체한다. (set-associative)
+    // 그래서 전체 크기는 capacity 를 넘지 않고, 삭제 때문에 open addressing 의 탐색이 깨질 일도 없다.
+
+    // 교체 정책 (Eviction)
+    // CLOCK    : 조회된 칸에 참조 비트를 세우고, 교체할 때 시계 바늘을 돌리면서 참조 비트가 없는 칸을 내보낸다.
+    // TINY_LFU : CLOCK 으로 고른 희생 칸보다 새 키의 최근 조회 빈도(FrequencySketch)가 높을 때만 넣는다.
+    //            한두 번 들어온 가격이 자주 쓰는 가격을 밀어내지 않는다.
+
+    // 동시성 규칙
+    // 조회는 락을 잡지 않는다. 묶음마다 버전(stamps)을 두고 seqlock 처럼 읽는다.
+    // 쓰는 쪽은 묶음 락을 잡고 버전을 홀수로 올린 뒤 쓰고, 다시 짝수로 올린다.
+    // 읽는 쪽은 읽기 전후의 버전이 같고 짝수일 때만 읽은 값을 믿는다. 아니면 그냥 캐시 미스로 처리한다.
+
+    // 무효화
+    // 테이블은 만들 때의 정책 스냅샷(DiscountPolicy.snapshot)을 들고 있다.
+    // 감싼 정책이 바뀌면(ReloadableDiscountPolicy.update) 스냅샷이 달라지므로 빈 테이블로 통째로 교체한다.
+
+    public enum Eviction {
+        CLOCK, TINY_LFU
+    }
+
+    private static final VarHandle STAMPS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int WAYS = 8;
+    private static final long EMPTY = -1L;
+    private static final int NO_GRADE = Grade.values().length;
+
+    private final DiscountPolicy discountPolicy;
+    private final Eviction eviction;
+    private final int setMask;
+    private final Object[] locks;
+    private final FrequencySketch sketch;
+    private volatile Table table;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    private static final class Table {
+        final DiscountPolicy policy;
+        final long[] keys;
+        final int[] values;
+        final byte[] referenced;
+        final int[] hands;
+        final int[] stamps;
+        // snapshot() 이 돌려주는 뷰, 테이블마다 한 번만 만든다.
+        DiscountPolicy view;
+
+        Table(DiscountPolicy policy, int sets) {
+            this.policy = policy;
+            keys = new long[sets * WAYS];
+            values = new int[sets * WAYS];
+            referenced = new byte[sets * WAYS];
+            hands = new int[sets];
+            stamps = new int[sets];
+            Arrays.fill(keys, EMPTY);
+        }
+    }
+
+    public CachingDiscountPolicy(DiscountPolicy discountPolicy, int capacity, Eviction eviction) {
+        if (capacity < 1 || capacity > 1 << 26) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + (1 << 26) + ": " + capacity);
+        }
+        int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS));
+        this.discountPolicy = discountPolicy;
+        this.eviction = eviction;
+        this.setMask = sets - 1;
+        this.locks = new Object[sets];
+        for (int i = 0; i < sets; i++) {
+            locks[i] = new Object();
+        }
+        this.sketch = eviction == Eviction.TINY_LFU ? new FrequencySketch(sets * WAYS) : null;
+        this.table = newTable(discountPolicy.snapshot(), sets);
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return discount(currentTable(), member, price);
+    }
+
+    // 주문 하나(또는 배치 하나) 동안은 같은 정책, 같은 테이블을 사용한다.
+    // 뷰는 테이블을 만들 때 함께 만들어 두므로 호출할 때마다 객체를 만들지 않는다.
+    @Override
+    public DiscountPolicy snapshot() {
+        return currentTable().view;
+    }
+
+    // 대량 계산은 캐시를 거치지 않고 감싼 정책의 배열 구현을 바로 사용한다.
+    // 배열 구현은 캐시 조회보다 싸고, 한 번만 나오는 가격으로 캐시를 채우지도 않는다.
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        currentTable().policy.discountAll(gradeOrdinals, prices, out);
+    }
+
+    @Override
+    public long getVersion() {
+        return currentTable().policy.getVersion();
+    }
+
+    public DiscountPolicy getDiscountPolicy() {
+        return discountPolicy;
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    // 저장할 수 있는 최대 항목 수, 요청한 capacity 를 WAYS 의 2의 거듭제곱 배로 내림한 값
+    public int getCapacity() {
+        return (setMask + 1) * WAYS;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CachingDiscountPolicy{" +
+                "discountPolicy=" + discountPolicy +
+                ", eviction=" + eviction +
+                ", capacity=" + getCapacity() +
+                ", hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                '}';
+    }
+
+    private int discount(Table t, Member member, int price) {
+        long key = key(member.getGrade(), price);
+        int set = hash(key) & setMask;
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+
+        int stamp = (int) STAMPS.getAcquire(t.stamps, set);
+        if ((stamp & 1) == 0) {
+            int base = set * WAYS;
+            for (int way = base; way < base + WAYS; way++) {
+                if (t.keys[way] == key) {
+                    int value = t.values[way];
+                    VarHandle.acquireFence();
+                    if ((int) STAMPS.getOpaque(t.stamps, set) == stamp) {
+                        t.referenced[way] = 1;
+                        hitCount.increment();
+                        return value;
+                    }
+                    break;
+                }
+            }
+        }
+
+        missCount.increment();
+        int value = t.policy.discount(member, price);
+        insert(t, set, key, value);
+        return value;
+    }
+
+    private void insert(Table t, int set, long key, int value) {
+        synchronized (locks[set]) {
+            int base = set * WAYS;
+            int target = -1;
+            for (int way = base; way < base + WAYS; way++) {
+                if (t.keys[way] == key) {
+                    return;     // 다른 스레드가 먼저 넣었다.
+                }
+                if (target < 0 && t.keys[way] == EMPTY) {
+                    target = way;
+                }
+            }
+
+            boolean evict = target < 0;
+            if (evict) {
+                target = clockVictim(t, set);
+                if (sketch != null && sketch.frequency(key) <= sketch.frequency(t.keys[target])) {
+                    return;     // 희생 칸이 더 자주 쓰이므로 새 키를 넣지 않는다.
+                }
+            }
+
+            int stamp = t.stamps[set];
+            STAMPS.setOpaque(t.stamps, set, stamp + 1);
+            VarHandle.storeStoreFence();
+            t.keys[target] = key;
+            t.values[target] = value;
+            t.referenced[target] = 0;
+            STAMPS.setRelease(t.stamps, set, stamp + 2);
+            if (evict) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    // 참조 비트가 세워진 칸은 비트만 지우고 넘어가서 한 바퀴 더 기회를 준다.
+    private int clockVictim(Table t, int set) {
+        int base = set * WAYS;
+        while (true) {
+            int way = base + t.hands[set];
+            t.hands[set] = (t.hands[set] + 1) & (WAYS - 1);
+            if (t.referenced[way] == 0) {
+                return way;
+            }
+            t.referenced[way] = 0;
+        }
+    }
+
+    private Table newTable(DiscountPolicy policy, int sets) {
+        Table t = new Table(policy, sets);
+        t.view = new DiscountPolicy() {
+            @Override
+            public int discount(Member member, int price) {
+                return CachingDiscountPolicy.this.discount(t, member, price);
+            }
+
+            @Override
+            public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+                t.policy.discountAll(gradeOrdinals, prices, out);
+            }
+
+            @Override
+            public long getVersion() {
+                return t.policy.getVersion();
+            }
+        };
+        return t;
+    }
+
+    private Table currentTable() {
+        Table t = table;
+        DiscountPolicy policy = discountPolicy.snapshot();
+        if (t.policy == policy) {
+            return t;
+        }
+        synchronized (this) {
+            t = table;
+            if (t.policy != policy) {
+                t = newTable(policy, setMask + 1);
+                table = t;
+                invalidationCount.increment();
+            }
+            return t;
+        }
+    }
+
+    private static long key(Grade grade, int price) {
+        long gradeIndex = grade == null ? NO_GRADE : grade.ordinal();
+        return gradeIndex << 32 | (price & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // 키별 최근 조회 횟수를 근사하는 count-min sketch (4 비트 카운터 대신 byte, 최대 15)
+    // 여러 스레드가 락 없이 올리므로 증가가 가끔 유실될 수 있지만, 빈도를 비교하는 용도라 문제 없다.
+    // 조회가 sampleSize 만큼 쌓이면 모든 카운터를 절반으로 줄여서 오래된 인기도를 잊는다.
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+        };
+        private static final int MAX = 15;
+
+        private final byte[][] rows;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity) - 1) << 1;
+            rows = new byte[SEEDS.length][width];
+            mask = width - 1;
+            sampleSize = 10 * width;
+        }
+
+        void increment(long key) {
+            for (int i = 0; i < SEEDS.length; i++) {
+                byte[] row = rows[i];
+                int index = index(key, i);
+                if (row[index] < MAX) {
+                    row[index]++;
+                }
+            }
+            if (++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(long key) {
+            int min = MAX;
+            for (int i = 0; i < SEEDS.length; i++) {
+                min = Math.min(min, rows[i][index(key, i)]);
+            }
+            return min;
+        }
+
+        private void reset() {
+            additions = 0;
+            for (byte[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+        }
+
+        private int index(long key, int i) {
+            long h = (key + i) * SEEDS[i];
+            return (int) (h >>> 32) & mask;
+        }
+    }
+}
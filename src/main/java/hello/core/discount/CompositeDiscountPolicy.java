@@ -0,0 +1,83 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CompositeDiscountPolicy implements DiscountPolicy {
+
+    // 여러 할인 정책을 하나로 묶는 정책
+    // SUM : 모든 정책의 할인을 더한다. (중복 할인) 단, 가격보다 많이 할인하지 않는다.
+    // MAX : 가장 많이 할인해주는 정책 하나만 적용한다.
+
+    public enum Mode {
+        SUM, MAX
+    }
+
+    private final Mode mode;
+    private final DiscountPolicy[] policies;
+
+    public CompositeDiscountPolicy(Mode mode, List<? extends DiscountPolicy> policies) {
+        if (policies.isEmpty()) {
+            throw new IllegalArgumentException("policies must not be empty");
+        }
+        this.mode = mode;
+        this.policies = policies.toArray(new DiscountPolicy[0]);
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        long discount = 0;
+        for (DiscountPolicy policy : policies) {
+            int value = policy.discount(member, price);
+            discount = mode == Mode.SUM ? discount + value : Math.max(discount, value);
+        }
+        return (int) Math.min(discount, Math.max(price, 0));
+    }
+
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        DiscountArrays.checkLength(gradeOrdinals, prices, out);
+        int[] part = new int[prices.length];
+        policies[0].discountAll(gradeOrdinals, prices, out);
+        for (int p = 1; p < policies.length; p++) {
+            policies[p].discountAll(gradeOrdinals, prices, part);
+            for (int i = 0; i < prices.length; i++) {
+                long discount = mode == Mode.SUM ? (long) out[i] + part[i] : Math.max(out[i], part[i]);
+                out[i] = (int) Math.min(discount, Integer.MAX_VALUE);
+            }
+        }
+        for (int i = 0; i < prices.length; i++) {
+            out[i] = Math.min(out[i], Math.max(prices[i], 0));
+        }
+    }
+
+    // 묶인 정책 중 실행 중에 바뀌는 정책이 있으면 그 시점의 스냅샷들로 다시 묶는다.
+    @Override
+    public DiscountPolicy snapshot() {
+        DiscountPolicy[] snapshots = new DiscountPolicy[policies.length];
+        boolean changed = false;
+        for (int i = 0; i < policies.length; i++) {
+            snapshots[i] = policies[i].snapshot();
+            changed |= snapshots[i] != policies[i];
+        }
+        return changed ? new CompositeDiscountPolicy(mode, Arrays.asList(snapshots)) : this;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public List<DiscountPolicy> getPolicies() {
+        return Arrays.asList(policies.clone());
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeDiscountPolicy{" +
+                "mode=" + mode +
+                ", policies=" + Arrays.toString(policies) +
+                '}';
+    }
+}
@@ -0,0 +1,23 @@
+package hello.core.discount;
+
+final class DiscountArrays {
+
+    // DiscountPolicy.discountAll 구현에서 함께 쓰는 도구
+
+    private DiscountArrays() {
+    }
+
+    static void checkLength(byte[] gradeOrdinals, int[] prices, int[] out) {
+        if (gradeOrdinals.length != prices.length || out.length < prices.length) {
+            throw new IllegalArgumentException("gradeOrdinals, prices must have the same length and out must not be shorter: "
+                    + gradeOrdinals.length + ", " + prices.length + ", " + out.length);
+        }
+    }
+
+    // grade 가 target 이면 -1(모든 비트 1), 아니면 0
+    // x 가 0 이 아닐 때만 (x | -x) 의 부호 비트가 1 이 되는 것을 이용해서 분기 없이 계산한다.
+    static int matchMask(int grade, int target) {
+        int x = grade ^ target;
+        return ~((x | -x) >> 31);
+    }
+}
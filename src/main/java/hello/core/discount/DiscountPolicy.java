@@ -1,9 +1,41 @@
 package hello.core.discount;
 
+import hello.core.member.Grade;
 import hello.core.member.Member;
 
 public interface DiscountPolicy {
     
     // @return 할인 대상 금액
     int discount(Member member, int price);
+
+    // 대량 할인 계산 (야간 일괄 재계산 등)
+    // gradeOrdinals[i] 등급(Grade.ordinal), prices[i] 가격의 할인 금액을 out[i] 에 쓴다.
+    // 음수(-1) 등급은 등급이 없는(null) 회원으로 계산한다. (OffHeapMemberRepository 의 grades 컬럼과 같은 규칙)
+    // 기본 구현은 등급마다 Member 하나를 만들어두고 discount 를 반복 호출한다.
+    // 회원과 상관없이 계산할 수 있는 정책은 배열만 도는 반복문으로 재정의한다.
+    default void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        DiscountArrays.checkLength(gradeOrdinals, prices, out);
+        Grade[] grades = Grade.values();
+        Member[] members = new Member[grades.length];
+        for (int g = 0; g < grades.length; g++) {
+            members[g] = new Member(null, null, grades[g]);
+        }
+        Member noGrade = new Member(null, null, null);
+        for (int i = 0; i < prices.length; i++) {
+            int grade = gradeOrdinals[i];
+            out[i] = discount(grade < 0 ? noGrade : members[grade], prices[i]);
+        }
+    }
+
+    // 현재 시점의 바뀌지 않는 정책
+    // 실행 중에 바뀌는 정책(ReloadableDiscountPolicy)은 지금 게시된 스냅샷을 돌려준다.
+    // 주문 하나(또는 배치 하나)는 같은 스냅샷으로 계산해야 중간에 정책이 바뀌어도 섞이지 않는다.
+    default DiscountPolicy snapshot() {
+        return this;
+    }
+
+    // 정책 버전, 바뀌지 않는 정책은 0
+    default long getVersion() {
+        return 0;
+    }
 }
@@ -0,0 +1,140 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class DiscountPolicyRegistry {
+
+    // 이름으로 할인 정책을 골라 쓰는 저장소 (AllBeanTest.DiscountService 의 Map<String, DiscountPolicy> 대체)
+    // 이름 -> 정책을 매번 Map 에서 찾지 않고, 이름은 처음 한 번만 정수 번호(handle)로 바꿔둔다.
+    // 주문마다 하는 discount(handle, ...) 는 배열 인덱스 접근 한 번이라 문자열 해시 계산이 없다.
+
+    // 동시성 규칙
+    // 등록(register, registerComposite)은 드물어서 락을 잡고, 배열을 복사한 새 상태로 통째로 교체한다. (copy-on-write)
+    // 조회(handle, discount)는 volatile 읽기 한 번이고 락을 잡지 않는다.
+    // 한 번 받은 번호는 바뀌지 않는다. 같은 이름으로 다시 등록하면 같은 번호의 정책만 바뀐다.
+
+    private static final class State {
+        final String[] names;
+        final DiscountPolicy[] policies;
+        final LongAdder[] invocations;
+        final Map<String, Integer> handles;
+
+        State(String[] names, DiscountPolicy[] policies, LongAdder[] invocations) {
+            this.names = names;
+            this.policies = policies;
+            this.invocations = invocations;
+            this.handles = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                handles.put(names[i], i);
+            }
+        }
+    }
+
+    private volatile State state = new State(new String[0], new DiscountPolicy[0], new LongAdder[0]);
+
+    public DiscountPolicyRegistry() {
+    }
+
+    // 스프링 빈으로 등록된 할인 정책 전체를 빈 이름으로 등록한다.
+    @Autowired
+    public DiscountPolicyRegistry(Map<String, DiscountPolicy> policies) {
+        policies.forEach(this::register);
+    }
+
+    // @return 등록된 번호
+    public synchronized int register(String name, DiscountPolicy policy) {
+        if (name == null || policy == null) {
+            throw new IllegalArgumentException("name and policy must not be null");
+        }
+        State s = state;
+        Integer handle = s.handles.get(name);
+        if (handle != null) {
+            DiscountPolicy[] policies = s.policies.clone();
+            policies[handle] = policy;
+            state = new State(s.names, policies, s.invocations);
+            return handle;
+        }
+
+        int next = s.names.length;
+        String[] names = Arrays.copyOf(s.names, next + 1);
+        DiscountPolicy[] policies = Arrays.copyOf(s.policies, next + 1);
+        LongAdder[] invocations = Arrays.copyOf(s.invocations, next + 1);
+        names[next] = name;
+        policies[next] = policy;
+        invocations[next] = new LongAdder();
+        state = new State(names, policies, invocations);
+        return next;
+    }
+
+    // 이미 등록된 정책들을 묶어서 새 이름으로 등록한다. (CompositeDiscountPolicy)
+    // ex) registerComposite("vipEvent", CompositeDiscountPolicy.Mode.SUM, "rateDiscountPolicy", "fixDiscountPolicy")
+    public synchronized int registerComposite(String name, CompositeDiscountPolicy.Mode mode, String... parts) {
+        List<DiscountPolicy> policies = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            policies.add(get(part));
+        }
+        return register(name, new CompositeDiscountPolicy(mode, policies));
+    }
+
+    // 이름을 번호로 바꾼다. 주문마다 호출하지 말고 한 번 받아서 재사용한다.
+    // 없는 이름이나 null 이면 NullPointerException 대신 IllegalArgumentException 이 난다.
+    public int handle(String name) {
+        Integer handle = name == null ? null : state.handles.get(name);
+        if (handle == null) {
+            throw new IllegalArgumentException("unknown discount policy: " + name);
+        }
+        return handle;
+    }
+
+    public int discount(int handle, Member member, int price) {
+        State s = state;
+        s.invocations[handle].increment();
+        return s.policies[handle].discount(member, price);
+    }
+
+    // 자주 쓰지 않는 곳을 위한 이름 조회 버전
+    public int discount(String name, Member member, int price) {
+        return discount(handle(name), member, price);
+    }
+
+    public DiscountPolicy get(String name) {
+        return state.policies[handle(name)];
+    }
+
+    public DiscountPolicy get(int handle) {
+        return state.policies[handle];
+    }
+
+    public String name(int handle) {
+        return state.names[handle];
+    }
+
+    public int size() {
+        return state.names.length;
+    }
+
+    public long getInvocationCount(int handle) {
+        return state.invocations[handle].sum();
+    }
+
+    // @return 이름 -> 호출 횟수 (등록 순서)
+    public Map<String, Long> getInvocationCounts() {
+        State s = state;
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < s.names.length; i++) {
+            counts.put(s.names[i], s.invocations[i].sum());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,155 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+
+public class DiscountRule {
+
+    // 선언적 할인 규칙 한 줄
+    // 규칙 파일에서는 공백으로 구분한 key=value 로 적는다. 적지 않은 항목은 기본값을 사용한다.
+    //   grade=VIP        대상 등급, * 이면 모든 등급 (기본 *)
+    //   min=10000        이 가격 이상에만 적용 (기본 제한 없음)
+    //   max=50000        이 가격 미만에만 적용 (기본 제한 없음)
+    //   amount=1000      정액 할인
+    //   percent=10       정률 할인
+    //   cap=5000         이 규칙의 최대 할인 금액 (기본 제한 없음)
+    //   priority=10      겹치는 단독 규칙 중 우선순위가 높은 것 하나만 적용 (기본 0)
+    //   stack            다른 규칙에 더해서 적용 (없으면 단독 규칙)
+    // 예) grade=VIP percent=10
+    //     grade=* min=100000 amount=2000 stack
+
+    private final Grade grade;
+    private final int minPrice;
+    private final int maxPrice;
+    private final int amount;
+    private final int percent;
+    private final int cap;
+    private final int priority;
+    private final boolean stackable;
+
+    public DiscountRule(Grade grade, int minPrice, int maxPrice, int amount, int percent, int cap, int priority, boolean stackable) {
+        if (minPrice >= maxPrice) {
+            throw new IllegalArgumentException("min must be less than max: " + minPrice + " >= " + maxPrice);
+        }
+        if (amount < 0 || percent < 0 || percent > 100 || cap < 0) {
+            throw new IllegalArgumentException("invalid discount: amount=" + amount + ", percent=" + percent + ", cap=" + cap);
+        }
+        this.grade = grade;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.amount = amount;
+        this.percent = percent;
+        this.cap = cap;
+        this.priority = priority;
+        this.stackable = stackable;
+    }
+
+    public static DiscountRule parse(String line) {
+        Grade grade = null;
+        int minPrice = Integer.MIN_VALUE;
+        int maxPrice = Integer.MAX_VALUE;
+        int amount = 0;
+        int percent = 0;
+        int cap = Integer.MAX_VALUE;
+        int priority = 0;
+        boolean stackable = false;
+
+        for (String token : line.trim().split("\\s+")) {
+            if (token.equals("stack")) {
+                stackable = true;
+                continue;
+            }
+            int eq = token.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("invalid discount rule token '" + token + "' in: " + line);
+            }
+            String key = token.substring(0, eq);
+            String value = token.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "grade":
+                        grade = value.equals("*") ? null : Grade.valueOf(value);
+                        break;
+                    case "min":
+                        minPrice = Integer.parseInt(value);
+                        break;
+                    case "max":
+                        maxPrice = Integer.parseInt(value);
+                        break;
+                    case "amount":
+                        amount = Integer.parseInt(value);
+                        break;
+                    case "percent":
+                        percent = Integer.parseInt(value);
+                        break;
+                    case "cap":
+                        cap = Integer.parseInt(value);
+                        break;
+                    case "priority":
+                        priority = Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown discount rule key '" + key + "' in: " + line);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid number for '" + key + "' in: " + line, e);
+            }
+        }
+        return new DiscountRule(grade, minPrice, maxPrice, amount, percent, cap, priority, stackable);
+    }
+
+    // grade 가 null 이면 모든 등급에 적용
+    public boolean appliesTo(Grade memberGrade, int price) {
+        return (grade == null || grade == memberGrade) && minPrice <= price && price < maxPrice;
+    }
+
+    // 이 규칙 하나의 할인 금액
+    public int discount(int price) {
+        return (int) Math.min(cap, amount + (long) price * percent / 100);
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public int getMinPrice() {
+        return minPrice;
+    }
+
+    public int getMaxPrice() {
+        return maxPrice;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public int getPercent() {
+        return percent;
+    }
+
+    public int getCap() {
+        return cap;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public boolean isStackable() {
+        return stackable;
+    }
+
+    @Override
+    public String toString() {
+        return "DiscountRule{" +
+                "grade=" + (grade == null ? "*" : grade) +
+                ", minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", amount=" + amount +
+                ", percent=" + percent +
+                ", cap=" + cap +
+                ", priority=" + priority +
+                ", stackable=" + stackable +
+                '}';
+    }
+}
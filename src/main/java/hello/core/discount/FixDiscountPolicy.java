@@ -8,7 +8,18 @@ import org.springframework.stereotype.Component;
 @Component
 public class FixDiscountPolicy implements DiscountPolicy{
 
-    private int discountFixAmount = 1000;   // 1000원 할인
+    private final int discountFixAmount;
+
+    public FixDiscountPolicy() {
+        this(1000);     // 1000원 할인
+    }
+
+    public FixDiscountPolicy(int discountFixAmount) {
+        if (discountFixAmount < 0) {
+            throw new IllegalArgumentException("discountFixAmount must not be negative: " + discountFixAmount);
+        }
+        this.discountFixAmount = discountFixAmount;
+    }
 
     @Override
     public int discount(Member member, int price) {
@@ -18,4 +29,16 @@ public class FixDiscountPolicy implements DiscountPolicy{
             return 0;
         }
     }
+
+    // 회원마다 discount 를 호출하지 않고 분기 없는 반복문 하나로 계산한다.
+    // 등급이 없는(음수) 회원은 VIP 가 아니므로 할인하지 않는다.
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        DiscountArrays.checkLength(gradeOrdinals, prices, out);
+        int vip = Grade.VIP.ordinal();
+        int amount = discountFixAmount;
+        for (int i = 0; i < prices.length; i++) {
+            out[i] = amount & DiscountArrays.matchMask(gradeOrdinals[i], vip);
+        }
+    }
 }
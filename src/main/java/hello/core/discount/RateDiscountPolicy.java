@@ -11,7 +11,18 @@ import org.springframework.stereotype.Component;
 @MainDiscountPolicy
 public class RateDiscountPolicy implements DiscountPolicy {
 
-    private int discountPercent = 10;
+    private final int discountPercent;
+
+    public RateDiscountPolicy() {
+        this(10);
+    }
+
+    public RateDiscountPolicy(int discountPercent) {
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw new IllegalArgumentException("discountPercent must be between 0 and 100: " + discountPercent);
+        }
+        this.discountPercent = discountPercent;
+    }
 
     @Override
     public int discount(Member member, int price) {
@@ -23,4 +34,18 @@ public class RateDiscountPolicy implements DiscountPolicy {
         }
 
     }
+
+    // 회원마다 discount 를 호출하지 않고 등급, 가격 배열을 도는 분기 없는 반복문 하나로 계산한다.
+    // 얻는 것은 Member 조회, 가상 호출, 분기 예측 실패가 없어지는 것이다. 한 번에 한 건씩 계산하는 스칼라 반복문이다.
+    // 나눗셈(/ 100)과 byte, int 배열을 함께 읽는 반복문이라 JIT 가 SIMD 로 자동 벡터화하지는 않는다. (벡터화를 기대하고 바꾸지 말 것)
+    // 등급이 없는(음수) 회원은 VIP 가 아니므로 할인하지 않는다.
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        DiscountArrays.checkLength(gradeOrdinals, prices, out);
+        int vip = Grade.VIP.ordinal();
+        int percent = discountPercent;
+        for (int i = 0; i < prices.length; i++) {
+            out[i] = (prices[i] * percent / 100) & DiscountArrays.matchMask(gradeOrdinals[i], vip);
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ReloadableDiscountPolicy implements DiscountPolicy {
+
+    // 재배포 없이 실행 중에 할인 정책을 바꿀 수 있는 정책
+    // 현재 정책은 불변 스냅샷(VersionedDiscountPolicy)으로 AtomicReference 에 들고 있고, 바꿀 때는 새 스냅샷으로 통째로 교체한다.
+    // 주문 계산(discount, snapshot)은 volatile 읽기 한 번뿐이라 락을 잡지 않고, 교체 중에도 멈추지 않는다.
+    // 바꿀 때마다 버전이 1씩 올라가고, 주문(Order)에는 계산에 사용한 버전이 기록된다.
+
+    // 바꾸는 방법
+    // 1. update(DiscountPolicy) 를 직접 호출 (관리용 API: DiscountPolicyController)
+    // 2. discount.rules-watch-file 로 지정한 규칙 파일을 주기적으로 확인해서 바뀌면 다시 읽는다.
+
+    // 컴포넌트 스캔 대상이 아니다. AppConfig.discountPolicy 가 discount.* 설정으로 만든 빈 하나만 사용한다.
+    // 스캔으로도 등록하면 컨테이너에 인스턴스가 둘 생겨서, 관리용 API 가 바꾼 정책과 주문 계산이 쓰는 정책이 달라진다.
+
+    private final AtomicReference<VersionedDiscountPolicy> current;
+    private final Path watchFile;
+    private final long watchIntervalMillis;
+    private ScheduledExecutorService watcher;
+    private FileTime lastModified;
+
+    public ReloadableDiscountPolicy(DiscountPolicy discountPolicy) {
+        this(discountPolicy, null, 0);
+    }
+
+    // 처음 정책은 감시 파일 -> 클래스패스 규칙 파일 -> RateDiscountPolicy 순서로 정한다.
+    public ReloadableDiscountPolicy(String rulesLocation, String watchFile, long watchIntervalMillis) {
+        this(initialPolicy(rulesLocation), isEmpty(watchFile) ? null : Paths.get(watchFile), watchIntervalMillis);
+        if (this.watchFile != null && Files.exists(this.watchFile)) {
+            reloadIfModified();
+        }
+    }
+
+    private ReloadableDiscountPolicy(DiscountPolicy discountPolicy, Path watchFile, long watchIntervalMillis) {
+        this.current = new AtomicReference<>(new VersionedDiscountPolicy(1, discountPolicy.snapshot()));
+        this.watchFile = watchFile;
+        this.watchIntervalMillis = watchIntervalMillis > 0 ? watchIntervalMillis : 1000;
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return current.get().discount(member, price);
+    }
+
+    // 배열 전체를 한 스냅샷으로 계산한다.
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        current.get().discountAll(gradeOrdinals, prices, out);
+    }
+
+    @Override
+    public VersionedDiscountPolicy snapshot() {
+        return current.get();
+    }
+
+    @Override
+    public long getVersion() {
+        return current.get().getVersion();
+    }
+
+    // 새 정책을 게시한다.
+    // @return 새 버전
+    public long update(DiscountPolicy discountPolicy) {
+        DiscountPolicy next = discountPolicy.snapshot();
+        VersionedDiscountPolicy published = current.updateAndGet(
+                previous -> new VersionedDiscountPolicy(previous.getVersion() + 1, next));
+        return published.getVersion();
+    }
+
+    @PostConstruct
+    public void startWatching() {
+        if (watchFile == null || watcher != null) {
+            return;
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "discount-policy-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(this::reloadIfModified, watchIntervalMillis, watchIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    // 규칙 파일이 잘못되었으면 이전 정책을 그대로 유지한다.
+    private void reloadIfModified() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(watchFile);
+            if (modified.equals(lastModified)) {
+                return;
+            }
+            // 잘못된 파일도 다시 바뀔 때까지는 다시 읽지 않는다.
+            lastModified = modified;
+            RuleDiscountPolicy rules = RuleDiscountPolicy.parse(Files.readAllLines(watchFile, StandardCharsets.UTF_8));
+            System.out.println("discount policy reloaded: " + watchFile + ", version=" + update(rules));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("discount policy reload failed, keeping version " + getVersion() + ": " + e);
+        }
+    }
+
+    private static DiscountPolicy initialPolicy(String rulesLocation) {
+        return isEmpty(rulesLocation) ? new RateDiscountPolicy() : RuleDiscountPolicy.load(rulesLocation);
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,169 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+public class RuleDiscountPolicy implements DiscountPolicy {
+
+    // 선언적 할인 규칙(DiscountRule) 목록으로 만드는 할인 정책
+    // 새 프로모션마다 FixDiscountPolicy, RateDiscountPolicy 같은 클래스를 만들고 배포하는 대신 규칙 파일만 고친다.
+
+    // 규칙을 호출할 때마다 해석하지 않고, 생성 시점에 결정 테이블로 미리 컴파일한다.
+    // 1. 모든 규칙의 min, max 값을 모아 가격 구간(band)을 나눈다. 한 구간 안에서는 적용되는 규칙이 바뀌지 않는다.
+    // 2. (등급, 구간) 칸마다 실제로 적용될 규칙만 골라둔다. (stack 규칙 전부 + 단독 규칙 중 우선순위가 가장 높은 하나)
+    // 3. 골라둔 규칙의 amount, percent, cap 을 칸 순서대로 int 배열에 펼쳐둔다.
+    // discount 는 구간을 이진 탐색으로 찾고, 칸에 들어있는 몇 개의 항만 더한다. 규칙이 수백 개여도 호출 비용은 거의 같다.
+    // 규칙마다 cap 이 있어도 stack 규칙을 더한 합은 가격을 넘을 수 있으므로, 합은 가격까지로 자른다.
+
+    private static final Grade[] GRADES = Grade.values();
+    // 등급이 없는(null) 회원은 마지막 행을 사용한다.
+    private static final int NO_GRADE_ROW = GRADES.length;
+
+    private final List<DiscountRule> rules;
+    private final int[] bounds;
+    private final int[] cellStart;
+    private final int[] amounts;
+    private final int[] percents;
+    private final int[] caps;
+
+    public RuleDiscountPolicy(List<DiscountRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+
+        TreeSet<Integer> points = new TreeSet<>();
+        points.add(Integer.MIN_VALUE);
+        for (DiscountRule rule : rules) {
+            points.add(rule.getMinPrice());
+            if (rule.getMaxPrice() != Integer.MAX_VALUE) {
+                points.add(rule.getMaxPrice());
+            }
+        }
+        bounds = new int[points.size()];
+        int b = 0;
+        for (int point : points) {
+            bounds[b++] = point;
+        }
+
+        int cells = (GRADES.length + 1) * bounds.length;
+        cellStart = new int[cells + 1];
+        List<DiscountRule> terms = new ArrayList<>();
+        for (int row = 0; row <= GRADES.length; row++) {
+            Grade grade = row == NO_GRADE_ROW ? null : GRADES[row];
+            for (int band = 0; band < bounds.length; band++) {
+                cellStart[row * bounds.length + band] = terms.size();
+                DiscountRule exclusive = null;
+                for (DiscountRule rule : rules) {
+                    if (!rule.appliesTo(grade, bounds[band])) {
+                        continue;
+                    }
+                    if (rule.isStackable()) {
+                        terms.add(rule);
+                    } else if (exclusive == null || rule.getPriority() > exclusive.getPriority()) {
+                        exclusive = rule;
+                    }
+                }
+                if (exclusive != null) {
+                    terms.add(exclusive);
+                }
+            }
+        }
+        cellStart[cells] = terms.size();
+
+        amounts = new int[terms.size()];
+        percents = new int[terms.size()];
+        caps = new int[terms.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            amounts[t] = terms.get(t).getAmount();
+            percents[t] = terms.get(t).getPercent();
+            caps[t] = terms.get(t).getCap();
+        }
+    }
+
+    // 빈 줄과 # 로 시작하는 줄은 무시한다.
+    public static RuleDiscountPolicy parse(List<String> lines) {
+        List<DiscountRule> rules = new ArrayList<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                rules.add(DiscountRule.parse(trimmed));
+            }
+        }
+        return new RuleDiscountPolicy(rules);
+    }
+
+    // 클래스패스의 규칙 파일을 읽는다. ex) discount-rules.txt
+    public static RuleDiscountPolicy load(String location) {
+        InputStream in = RuleDiscountPolicy.class.getClassLoader().getResourceAsStream(location);
+        if (in == null) {
+            throw new IllegalArgumentException("discount rule file not found: " + location);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return parse(lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read discount rule file: " + location, e);
+        }
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        Grade grade = member.getGrade();
+        int row = grade == null ? NO_GRADE_ROW : grade.ordinal();
+        int cell = row * bounds.length + band(price);
+
+        long discount = 0;
+        for (int t = cellStart[cell], end = cellStart[cell + 1]; t < end; t++) {
+            discount += Math.min(caps[t], amounts[t] + (long) price * percents[t] / 100);
+        }
+        return (int) Math.min(discount, price);
+    }
+
+    // 등급과 가격만 있으면 계산할 수 있어서 Member 를 만들지 않는다.
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        DiscountArrays.checkLength(gradeOrdinals, prices, out);
+        for (int i = 0; i < prices.length; i++) {
+            int price = prices[i];
+            // 음수 등급은 discount 에서 등급이 null 인 회원과 같은 행으로 계산한다.
+            int row = gradeOrdinals[i] < 0 ? NO_GRADE_ROW : gradeOrdinals[i];
+            int cell = row * bounds.length + band(price);
+            long discount = 0;
+            for (int t = cellStart[cell], end = cellStart[cell + 1]; t < end; t++) {
+                discount += Math.min(caps[t], amounts[t] + (long) price * percents[t] / 100);
+            }
+            out[i] = (int) Math.min(discount, price);
+        }
+    }
+
+    public List<DiscountRule> getRules() {
+        return rules;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleDiscountPolicy{" +
+                "rules=" + rules +
+                '}';
+    }
+
+    // price 가 속한 구간 번호, bounds[0] 이 Integer.MIN_VALUE 라서 항상 0 이상이다.
+    private int band(int price) {
+        int found = Arrays.binarySearch(bounds, price);
+        return found >= 0 ? found : -found - 2;
+    }
+}
@@ -0,0 +1,44 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+
+public final class VersionedDiscountPolicy implements DiscountPolicy {
+
+    // ReloadableDiscountPolicy 가 게시하는 불변 스냅샷 (버전 + 그 시점의 정책)
+    // 정책을 바꿀 때는 이 객체를 고치지 않고 새로 만들어서 통째로 교체한다. (copy-on-write)
+
+    private final long version;
+    private final DiscountPolicy discountPolicy;
+
+    public VersionedDiscountPolicy(long version, DiscountPolicy discountPolicy) {
+        this.version = version;
+        this.discountPolicy = discountPolicy;
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return discountPolicy.discount(member, price);
+    }
+
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        discountPolicy.discountAll(gradeOrdinals, prices, out);
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    public DiscountPolicy getDiscountPolicy() {
+        return discountPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "VersionedDiscountPolicy{" +
+                "version=" + version +
+                ", discountPolicy=" + discountPolicy +
+                '}';
+    }
+}
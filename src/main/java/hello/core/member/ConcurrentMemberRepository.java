@@ -0,0 +1,50 @@
+package hello.core.member;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Component
+public class ConcurrentMemberRepository implements MemberRepository {
+
+    // MemoryMemberRepository 의 HashMap 은 싱글톤 빈으로 여러 톰캣 스레드가 동시에 join 을 호출하면
+    // resize 도중에 저장이 유실되거나 내부 구조가 깨질 수 있다.
+
+    // ConcurrentHashMap 을 사용한 이유
+    // 쓰기(put)는 해시 버킷(bin) 단위로만 락을 잡는다. 서로 다른 버킷에 대한 쓰기는 병렬로 처리된다. (lock striping)
+    // 조회(get)는 락을 전혀 잡지 않고 volatile 읽기만으로 처리된다. 그래서 코어 수 만큼 조회가 확장된다.
+    // put 과 그 값을 읽는 get 사이에는 happens-before 관계가 보장된다.
+    // 따라서 save 이후 findById 로 꺼낸 스레드는 save 전에 채워진 Member 의 필드를 안전하게 볼 수 있다.
+
+    // static 은 MemoryMemberRepository 와 같은 이유로 유지한다. (new 로 여러번 생성해도 저장소는 하나)
+    private static final Map<Long, Member> store =
+            new ConcurrentHashMap<>(1024, 0.75f, Runtime.getRuntime().availableProcessors());
+
+    @Override
+    public void save(Member member) {
+        store.put(member.getId(), member);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return store.get(memberId);
+    }
+
+    // ConcurrentHashMap 은 버킷(bin)마다 락을 잡으므로 putAll 도 결국 한 건씩 락을 잡는다.
+    // 중간 Map 을 만들지 않고 바로 저장한다. (put 과 락 횟수는 같고 할당이 없다)
+    @Override
+    public void saveAll(Collection<Member> members) {
+        for (Member member : members) {
+            store.put(member.getId(), member);
+        }
+    }
+
+    // ConcurrentHashMap 의 순회는 락을 잡지 않고, 순회 중에 저장해도 예외가 나지 않는다.
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        store.values().forEach(action);
+    }
+}
@@ -0,0 +1,178 @@
+package hello.core.member;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class IndexedMemberRepository implements MemberRepository {
+
+    // 다른 저장소를 감싸서 등급(Grade), 이름 접두어로 조회할 수 있는 보조 인덱스를 유지하는 데코레이터
+    // id 로만 찾을 수 있는 저장소에서는 VIP 전체, 이름 접두어 조회에 전체 회원을 훑어야 하지만
+    // 이 인덱스를 사용하면 조회 결과 크기 만큼만 일을 한다.
+
+    // 등급 인덱스 : 등급마다 행(row) 번호 비트맵(BitSet)
+    // 이름 인덱스 : 이름 -> 행 번호 목록(RowList)을 정렬된 TreeMap 에 저장, 접두어로 시작하는 구간만 훑는다.
+    //             행 번호 목록은 ArrayList 처럼 두 배씩 늘려서, 흔한 이름이 많아도 저장 한 건에 드는 일이 일정하다.
+    // 행 번호는 id 마다 처음 저장될 때 하나씩 부여한다.
+
+    // 인덱스는 save 시점의 등급과 이름을 기준으로 한다. 저장 후에 Member 를 직접 고쳤다면 다시 save 해야 인덱스에 반영된다.
+    // 모든 저장은 이 저장소를 거쳐야 인덱스와 저장소가 일치한다.
+    // 저장과 보조 인덱스 조회는 같은 락을 잡고, findById 는 감싼 저장소에 그대로 넘긴다.
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private final MemberRepository memberRepository;
+    private final LongIndex rowsById = new LongIndex(1024);
+    private final BitSet[] rowsByGrade = new BitSet[GRADES.length];
+    private final TreeMap<String, RowList> rowsByName = new TreeMap<>();
+    private long[] ids = new long[1024];
+    private byte[] grades = new byte[1024];
+    private String[] names = new String[1024];
+    private int rows;
+
+    public IndexedMemberRepository(MemberRepository memberRepository) {
+        this.memberRepository = memberRepository;
+        for (int i = 0; i < rowsByGrade.length; i++) {
+            rowsByGrade[i] = new BitSet();
+        }
+    }
+
+    @Override
+    public synchronized void save(Member member) {
+        memberRepository.save(member);
+        index(member);
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<Member> members) {
+        memberRepository.saveAll(members);
+        rowsById.ensureCapacity(rowsById.size() + members.size());
+        for (Member member : members) {
+            index(member);
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberRepository.findById(memberId);
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return memberRepository.findById(memberId);
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        return memberRepository.findAllById(memberIds);
+    }
+
+    // @return 해당 등급 회원 전체, 처음 저장된 순서
+    public synchronized List<Member> findByGrade(Grade grade) {
+        BitSet bits = rowsByGrade[grade.ordinal()];
+        long[] found = new long[bits.cardinality()];
+        int count = 0;
+        for (int row = bits.nextSetBit(0); row >= 0; row = bits.nextSetBit(row + 1)) {
+            found[count++] = ids[row];
+        }
+        return Arrays.asList(memberRepository.findAllById(found));
+    }
+
+    // @return 이름이 prefix 로 시작하는 회원 전체, 이름 순서
+    public synchronized List<Member> findByNamePrefix(String prefix) {
+        long[] found = new long[16];
+        int count = 0;
+        for (Map.Entry<String, RowList> entry : rowsByName.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            RowList sameName = entry.getValue();
+            if (count + sameName.size > found.length) {
+                found = Arrays.copyOf(found, Math.max(found.length * 2, count + sameName.size));
+            }
+            for (int i = 0; i < sameName.size; i++) {
+                found[count++] = ids[sameName.rows[i]];
+            }
+        }
+        return Arrays.asList(memberRepository.findAllById(Arrays.copyOf(found, count)));
+    }
+
+    public synchronized int countByGrade(Grade grade) {
+        return rowsByGrade[grade.ordinal()].cardinality();
+    }
+
+    // 이전 등급, 이름으로 등록된 인덱스를 지우고 새 값으로 등록한다.
+    private void index(Member member) {
+        long memberId = member.getId();
+        int row = rowsById.get(memberId);
+        if (row < 0) {
+            row = newRow(memberId);
+        } else {
+            unindex(row);
+        }
+
+        grades[row] = member.getGrade() == null ? -1 : (byte) member.getGrade().ordinal();
+        names[row] = member.getName();
+        if (grades[row] >= 0) {
+            rowsByGrade[grades[row]].set(row);
+        }
+        if (names[row] != null) {
+            rowsByName.computeIfAbsent(names[row], name -> new RowList()).add(row);
+        }
+    }
+
+    private void unindex(int row) {
+        if (grades[row] >= 0) {
+            rowsByGrade[grades[row]].clear(row);
+        }
+        String name = names[row];
+        if (name != null) {
+            RowList sameName = rowsByName.get(name);
+            sameName.remove(row);
+            if (sameName.size == 0) {
+                rowsByName.remove(name);
+            }
+        }
+    }
+
+    private int newRow(long memberId) {
+        if (rows == ids.length) {
+            int capacity = rows * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            grades = Arrays.copyOf(grades, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        int row = rows++;
+        ids[row] = memberId;
+        rowsById.put(memberId, row);
+        return row;
+    }
+
+    // 같은 이름을 가진 행 번호 목록, 저장된 순서를 유지한다.
+    // 추가는 배열 끝에 하고 가득 차면 두 배로 늘린다. (추가 한 건에 평균 O(1))
+    private static final class RowList {
+        int[] rows = new int[2];
+        int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        // 다시 저장해서 이름이 바뀐 행을 뺀다. 뒤의 행을 한 칸씩 당겨서 순서를 유지한다.
+        void remove(int row) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == row) {
+                    System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package hello.core.member;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+public class LongIndex {
+
+    // long 키 -> int 행(row) 번호를 저장하는 open addressing(linear probing) 해시 테이블
+    // HashMap<Long, ?> 처럼 키를 Long 으로 박싱하거나 엔트리마다 Node 객체를 만들지 않는다.
+    // 키와 값은 long[], int[] 두 배열에 그대로 들어간다.
+
+    // 동시성 규칙
+    // put 은 한 번에 한 스레드만 호출해야 한다. (호출하는 저장소가 락을 잡는다)
+    // get 은 락 없이 아무 스레드에서나 호출할 수 있다.
+    // 쓰기는 keys[slot] 을 먼저 쓰고 rows[slot] 을 release 로 쓴다. 읽기는 rows[slot] 을 acquire 로 읽는다.
+    // 그래서 rows 가 보이면 같은 슬롯의 키와, put 전에 저장소가 써둔 행 데이터도 함께 보인다.
+    // 테이블이 가득 차면 새 테이블을 만들어서 모두 옮긴 뒤 volatile 필드로 한번에 교체한다.
+
+    private static final VarHandle ROWS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int MIN_CAPACITY = 16;
+
+    private static final class Table {
+        final long[] keys;
+        final int[] rows;   // row + 1 을 저장, 0 은 빈 슬롯
+        final int mask;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            rows = new int[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table;
+    private int size;
+
+    public LongIndex(int expectedSize) {
+        table = new Table(capacityFor(expectedSize));
+    }
+
+    // @return 키에 해당하는 행 번호, 없으면 -1
+    public int get(long key) {
+        Table t = table;
+        int slot = hash(key) & t.mask;
+        while (true) {
+            int row = (int) ROWS.getAcquire(t.rows, slot);
+            if (row == 0) {
+                return -1;
+            }
+            if (t.keys[slot] == key) {
+                return row - 1;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+    }
+
+    // @return 이전 행 번호, 없었으면 -1
+    public int put(long key, int row) {
+        Table t = table;
+        int slot = hash(key) & t.mask;
+        while (true) {
+            int old = (int) ROWS.getAcquire(t.rows, slot);
+            if (old == 0) {
+                break;
+            }
+            if (t.keys[slot] == key) {
+                ROWS.setRelease(t.rows, slot, row + 1);
+                return old - 1;
+            }
+            slot = (slot + 1) & t.mask;
+        }
+
+        if (size + 1 > (t.mask + 1) / 2) {
+            t = resize(size + 1);
+            slot = hash(key) & t.mask;
+            while (t.rows[slot] != 0) {
+                slot = (slot + 1) & t.mask;
+            }
+        }
+        t.keys[slot] = key;
+        ROWS.setRelease(t.rows, slot, row + 1);
+        size++;
+        return -1;
+    }
+
+    // 대량 저장 전에 미리 호출하면 중간에 여러번 resize 하지 않는다.
+    public void ensureCapacity(int expectedSize) {
+        if (capacityFor(expectedSize) > table.mask + 1) {
+            resize(expectedSize);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Table resize(int expectedSize) {
+        Table old = table;
+        Table t = new Table(Math.max(capacityFor(expectedSize), (old.mask + 1) * 2));
+        for (int i = 0; i <= old.mask; i++) {
+            int row = old.rows[i];
+            if (row != 0) {
+                int slot = hash(old.keys[i]) & t.mask;
+                while (t.rows[slot] != 0) {
+                    slot = (slot + 1) & t.mask;
+                }
+                t.keys[slot] = old.keys[i];
+                t.rows[slot] = row;
+            }
+        }
+        table = t;
+        return t;
+    }
+
+    // 사용률(load factor)을 50% 이하로 유지한다.
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 2);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("too many keys: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    // 연속된 id 도 슬롯에 고르게 퍼지도록 섞는다.
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,8 +1,42 @@
 package hello.core.member;
 
+import java.util.Collection;
+import java.util.function.Consumer;
+
 public interface MemberRepository {
 
     void save(Member member);
 
     Member findById(Long memberId);
+
+    // 박싱 없이 조회하는 오버로드
+    // 기본 구현은 박싱해서 findById(Long) 을 호출한다. 원시 타입 저장소(PrimitiveMemberRepository)는 박싱 없이 구현한다.
+    default Member findById(long memberId) {
+        return findById(Long.valueOf(memberId));
+    }
+
+    // 대량 저장
+    // 기본 구현은 한 건씩 save 를 호출한다. 저장소마다 공간을 미리 확보하고 락을 한 번만 잡도록 구현한다.
+    default void saveAll(Collection<Member> members) {
+        for (Member member : members) {
+            save(member);
+        }
+    }
+
+    // 대량 조회
+    // @return memberIds 와 같은 순서의 회원 배열, 없는 id 자리는 null
+    default Member[] findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            members[i] = findById(memberIds[i]);
+        }
+        return members;
+    }
+
+    // 저장된 회원을 id 마다 하나씩 차례로 넘겨준다. (스냅샷 용도)
+    // 순회 중에 저장된 회원은 넘겨줄 수도 있고 아닐 수도 있다.
+    // 기본 구현은 지원하지 않는다. 순회할 수 있는 저장소만 구현한다.
+    default void forEach(Consumer<? super Member> action) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support iteration");
+    }
 }
@@ -1,8 +1,20 @@
 package hello.core.member;
 
+import java.util.Collection;
+
 public interface MemberService {
 
     void join(Member member);
 
+    void joinAll(Collection<Member> members);
+
     Member findMember(Long memberId);
+
+    // 박싱 없이 조회하는 오버로드
+    default Member findMember(long memberId) {
+        return findMember(Long.valueOf(memberId));
+    }
+
+    // @return memberIds 와 같은 순서의 회원 배열, 없는 id 자리는 null
+    Member[] findMembers(long[] memberIds);
 }
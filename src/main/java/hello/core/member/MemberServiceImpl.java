@@ -3,6 +3,8 @@ package hello.core.member;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+
 @Component
 public class MemberServiceImpl implements MemberService {
 
@@ -31,11 +33,26 @@ public class MemberServiceImpl implements MemberService {
         memberRepository.save(member);
     }
 
+    @Override
+    public void joinAll(Collection<Member> members) {
+        memberRepository.saveAll(members);
+    }
+
     @Override
     public Member findMember(Long memberId) {
         return memberRepository.findById(memberId);
     }
 
+    @Override
+    public Member findMember(long memberId) {
+        return memberRepository.findById(memberId);
+    }
+
+    @Override
+    public Member[] findMembers(long[] memberIds) {
+        return memberRepository.findAllById(memberIds);
+    }
+
     // 테스트 용도
     public MemberRepository getMemberRepository() {
         return memberRepository;
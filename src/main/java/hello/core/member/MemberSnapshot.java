@@ -0,0 +1,137 @@
+package hello.core.member;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MemberSnapshot {
+
+    // OffHeapMemberRepository 의 컬럼을 그대로 파일에 쓰고, 재시작할 때 파일을 메모리에 매핑해서 다시 사용한다.
+    // join 을 처음부터 다시 호출하지 않고, 데이터 복사도 없이 바로 findById 를 처리할 수 있다. (id 인덱스만 다시 만든다)
+    // 설정된 저장소(AppConfig.memberRepository)에서는 SnapshotMemberRepository 가 시작할 때 load 로 매핑해서 그대로 조회하고, 주기적으로 write 한다.
+
+    // 파일 구조 (little endian)
+    // header   : magic(int) version(int) rows(int) nameBytes(int)
+    // ids      : rows * 8
+    // nameRefs : rows * 8
+    // grades   : rows
+    // names    : nameBytes
+    // 헤더가 16바이트라서 long 컬럼은 8바이트 경계에 맞춰진다.
+
+    static final int MAGIC = 0x4D425253;    // "MBRS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private MemberSnapshot() {
+    }
+
+    // 임시 파일에 다 쓴 뒤 원자적으로 이름을 바꾼다. 쓰는 도중에 죽어도 이전 스냅샷은 그대로 남는다.
+    public static void write(OffHeapMemberRepository memberRepository, Path path) throws IOException {
+        // 저장(save)과 같은 락 안에서는 행 수가 컬럼과 맞는 시점의 컬럼, 행 수, 이름 바이트 수만 읽는다.
+        // 저장은 끝에 행을 추가하기만 하고 기존 행은 고치지 않는다. (컬럼을 늘릴 때도 새 버퍼로 옮긴다)
+        // 그래서 읽어둔 범위의 내용은 락을 놓은 뒤에도 바뀌지 않고, 파일은 락 밖에서 써도 된다. 쓰는 동안에도 save 는 멈추지 않는다.
+        OffHeapMemberRepository.Columns columns;
+        int rows;
+        int nameBytes;
+        synchronized (memberRepository) {
+            columns = memberRepository.columns();
+            rows = memberRepository.rows();
+            nameBytes = memberRepository.nameBytes();
+        }
+        long size = HEADER_BYTES + (long) rows * (Long.BYTES * 2 + 1) + nameBytes;
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.order(OffHeapMemberRepository.ORDER);
+            out.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(nameBytes);
+            out.put(head(columns.ids, rows * Long.BYTES));
+            out.put(head(columns.nameRefs, rows * Long.BYTES));
+            out.put(head(columns.grades, rows));
+            out.put(head(columns.names, nameBytes));
+            out.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 오프힙이 아닌 저장소(ShardedMemberRepository, ConcurrentMemberRepository 등)는 회원을 오프힙 컬럼으로 모은 뒤 같은 형식으로 쓴다.
+    // 회원을 모으는 동안에만 저장소(파티션)의 락을 잠깐씩 잡고, 파일은 락 밖에서 쓴다.
+    public static void write(MemberRepository memberRepository, Path path) throws IOException {
+        if (memberRepository instanceof OffHeapMemberRepository) {
+            write((OffHeapMemberRepository) memberRepository, path);
+            return;
+        }
+        List<Member> members = new ArrayList<>();
+        memberRepository.forEach(members::add);
+        OffHeapMemberRepository columns = new OffHeapMemberRepository(members.size());
+        columns.saveAll(members);
+        write(columns, path);
+    }
+
+    // PRIVATE(copy-on-write) 로 매핑하므로 이후 save 가 파일을 바꾸지 않는다.
+    // PRIVATE 매핑은 쓰기 가능한 채널이 필요해서 WRITE 로 열지만 파일 내용은 바뀌지 않는다.
+    public static OffHeapMemberRepository load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("corrupt member snapshot: " + path);
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.PRIVATE, 0, size);
+            in.order(OffHeapMemberRepository.ORDER);
+            int magic = in.getInt(0);
+            int version = in.getInt(4);
+            int rows = in.getInt(8);
+            int nameBytes = in.getInt(12);
+            if (magic != MAGIC || version != VERSION || rows < 0 || nameBytes < 0
+                    || size != HEADER_BYTES + (long) rows * (Long.BYTES * 2 + 1) + nameBytes) {
+                throw new IOException("corrupt member snapshot: " + path);
+            }
+
+            int offset = HEADER_BYTES;
+            ByteBuffer ids = slice(in, offset, rows * Long.BYTES);
+            offset += rows * Long.BYTES;
+            ByteBuffer nameRefs = slice(in, offset, rows * Long.BYTES);
+            offset += rows * Long.BYTES;
+            ByteBuffer grades = slice(in, offset, rows);
+            offset += rows;
+            ByteBuffer names = slice(in, offset, nameBytes);
+
+            return new OffHeapMemberRepository(
+                    new OffHeapMemberRepository.Columns(ids, nameRefs, grades, names), rows, nameBytes);
+        }
+    }
+
+    // 스냅샷을 매핑해서 읽은 뒤 saveAll 로 다른 저장소에 옮겨 담는다. 회원 수만큼 Member 를 만들어서 복사한다.
+    // 시작할 때는 복사하지 않고 매핑을 그대로 쓰는 SnapshotMemberRepository 를 사용하고, 이건 저장소를 바꿔서 옮길 때만 사용한다.
+    // @return 옮겨 담은 회원 수, 파일이 없으면 0
+    public static int loadInto(Path path, MemberRepository memberRepository) throws IOException {
+        if (Files.notExists(path)) {
+            return 0;
+        }
+        OffHeapMemberRepository snapshot = load(path);
+        List<Member> members = new ArrayList<>(snapshot.size());
+        snapshot.forEach(members::add);
+        memberRepository.saveAll(members);
+        return members.size();
+    }
+
+    private static ByteBuffer head(ByteBuffer column, int length) {
+        ByteBuffer buffer = column.duplicate();
+        buffer.clear().limit(length);
+        return buffer;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset).limit(offset + length);
+        return slice.slice().order(OffHeapMemberRepository.ORDER);
+    }
+}
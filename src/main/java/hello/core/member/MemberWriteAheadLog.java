@@ -0,0 +1,376 @@
+package hello.core.member;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class MemberWriteAheadLog implements Closeable {
+
+    // 회원 저장을 파일 끝에 이어 쓰는(append-only) 로그
+    // 재시작하면 로그를 처음부터 읽어서(replay) 메모리 저장소를 다시 채운다.
+
+    // 기록 구조 (big endian)
+    // length(int) crc32(int) | id(long) grade(byte) nameLength(int, null 이면 -1) name(UTF-8)
+    // 쓰는 도중에 죽어서 끝이 잘리거나 crc 가 맞지 않는 기록을 만나면 거기서 멈추고 그 뒤는 잘라낸다.
+    // 파일 시스템에 따라 끝이 0 으로 채워진 채 남기도 한다. 길이 0 인 기록은 crc 도 0 이라 맞아 보이므로 길이부터 확인한다.
+
+    // group commit
+    // 기록은 메모리 버퍼(pending)에만 추가하고, fsync(force)는 기다리는 스레드 중 하나(leader)가 대표로 한다.
+    // leader 가 파일에 쓰는 동안 다른 스레드는 다음 버퍼에 계속 기록을 추가한다.
+    // 그래서 동시에 들어온 join 여러 건이 force 한 번으로 함께 디스크에 반영된다.
+
+    // 저장소 반영
+    // 회원은 force 가 끝난 뒤에 leader 가 버퍼 단위로(saveAll) 저장소에 반영한다. 디스크에 없는 회원은 다른 스레드에도 보이지 않는다.
+    // 버퍼는 한 번에 하나씩 순서대로 반영되므로 로그 순서와 저장소 반영 순서가 같다. 재시작 후에도 같은 결과가 나온다.
+    // 쓰기나 반영에 한 번이라도 실패하면 그 뒤로는 append, sync 모두 예외를 던진다. (재시작 시 replay 가 잘린 꼬리를 버린다)
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MIN_RECORD_BYTES = Long.BYTES + 1 + Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final Grade[] GRADES = Grade.values();
+
+    private final Path path;
+    private final MemberRepository memberRepository;
+    private final Object lock = new Object();
+    private FileChannel channel;
+    private ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private ByteBuffer spare = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    // pending 버퍼에 담긴 기록의 회원, force 가 끝나면 저장소에 반영한다.
+    private List<Member> pendingMembers = new ArrayList<>();
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean flushing;
+    private IOException failure;
+    private long forceCount;
+
+    // @param memberRepository 기록이 디스크에 반영된 뒤에 회원을 저장할 저장소
+    public MemberWriteAheadLog(Path path, MemberRepository memberRepository) throws IOException {
+        this.path = path;
+        this.memberRepository = memberRepository;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.channel.position(channel.size());
+    }
+
+    // 유효한 기록을 모두 저장소에 반영하고, 잘린 꼬리는 버린 뒤 그 위치부터 이어 쓴다.
+    public void replay() throws IOException {
+        synchronized (lock) {
+            long validBytes = read(memberRepository::save);
+            if (validBytes < channel.size()) {
+                channel.truncate(validBytes);
+                channel.force(true);
+            }
+            channel.position(validBytes);
+        }
+    }
+
+    // 기록을 버퍼에 추가한다. 저장소에는 sync 로 디스크에 반영된 뒤에 반영된다.
+    // @return 이 기록의 순번, sync 에 넘겨서 디스크에 반영될 때까지 기다린다.
+    public long append(Member member) {
+        byte[] record = encode(member);
+        synchronized (lock) {
+            checkNotFailed();
+            put(record);
+            pendingMembers.add(member);
+            return ++appendedSequence;
+        }
+    }
+
+    // 모두 인코딩한 뒤에 버퍼에 한번에 추가한다. 너무 큰 기록이 있으면 하나도 추가하지 않는다.
+    public long appendAll(Collection<Member> members) {
+        List<byte[]> records = new ArrayList<>(members.size());
+        for (Member member : members) {
+            records.add(encode(member));
+        }
+        synchronized (lock) {
+            checkNotFailed();
+            for (byte[] record : records) {
+                put(record);
+            }
+            pendingMembers.addAll(members);
+            appendedSequence += records.size();
+            return appendedSequence;
+        }
+    }
+
+    // sequence 까지의 기록이 디스크에 반영될 때까지 기다린다.
+    // 이미 다른 스레드가 쓰는 중이면 그 결과를 기다리고, 아무도 쓰고 있지 않으면 직접 leader 가 된다.
+    // leader 는 버퍼를 바꿔치기 한 뒤 lock 을 놓고 파일에 쓰고, 저장소에 반영한다. 그동안 다른 스레드는 새 버퍼에 계속 append 한다.
+    // 반환되면 sequence 까지의 회원은 디스크와 저장소에 모두 반영되어 있다.
+    public void sync(long sequence) {
+        while (true) {
+            ByteBuffer batch;
+            List<Member> batchMembers;
+            long batchSequence;
+            FileChannel out;
+            synchronized (lock) {
+                if (durableSequence >= sequence) {
+                    return;
+                }
+                checkNotFailed();
+                if (flushing) {
+                    waitForFlush();
+                    continue;
+                }
+                flushing = true;
+                batch = pending;
+                batchMembers = pendingMembers;
+                batchSequence = appendedSequence;
+                pending = spare;
+                pendingMembers = new ArrayList<>();
+                spare = null;
+                out = channel;
+            }
+
+            IOException error = writeAndApply(out, batch, batchMembers);
+
+            synchronized (lock) {
+                finishFlush(batch, batchSequence, error);
+            }
+        }
+    }
+
+    // 같은 id 의 이전 기록을 버리고 마지막 기록만 남긴 로그(스냅샷)로 교체한다.
+    // 교체하는 동안에는 append 가 기다린다.
+    public void compact() throws IOException {
+        synchronized (lock) {
+            while (flushing) {
+                waitForFlush();
+            }
+            if (durableSequence < appendedSequence && failure == null) {
+                flushLocked();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+
+            LongIndex latest = new LongIndex(1024);
+            List<byte[]> records = new ArrayList<>();
+            read(member -> {
+                byte[] record = encode(member);
+                int row = latest.get(member.getId());
+                if (row < 0) {
+                    latest.put(member.getId(), records.size());
+                    records.add(record);
+                } else {
+                    records.set(row, record);
+                }
+            });
+
+            Path temp = path.resolveSibling(path.getFileName() + ".compact");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (byte[] record : records) {
+                    ByteBuffer buffer = ByteBuffer.wrap(record);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                }
+                out.force(true);
+            }
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long sequence;
+        synchronized (lock) {
+            sequence = appendedSequence;
+        }
+        try {
+            sync(sequence);
+        } finally {
+            synchronized (lock) {
+                channel.close();
+            }
+        }
+    }
+
+    // 테스트 용도
+    public long getForceCount() {
+        synchronized (lock) {
+            return forceCount;
+        }
+    }
+
+    // compact 처럼 lock 을 계속 잡고 있어야 하는 곳에서 사용한다.
+    private void flushLocked() {
+        ByteBuffer batch = pending;
+        List<Member> batchMembers = pendingMembers;
+        long batchSequence = appendedSequence;
+        pending = spare;
+        pendingMembers = new ArrayList<>();
+        spare = null;
+        finishFlush(batch, batchSequence, writeAndApply(channel, batch, batchMembers));
+    }
+
+    // 디스크에 반영(force)된 뒤에만 저장소에 반영한다.
+    // @return 실패하면 그 원인, 성공하면 null
+    private IOException writeAndApply(FileChannel out, ByteBuffer batch, List<Member> batchMembers) {
+        try {
+            write(out, batch);
+        } catch (IOException e) {
+            return e;
+        }
+        try {
+            if (!batchMembers.isEmpty()) {
+                memberRepository.saveAll(batchMembers);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            // 디스크에는 있지만 저장소에는 없는 상태이므로 더 받지 않는다. 재시작하면 replay 로 다시 채워진다.
+            return new IOException("failed to apply member write-ahead log records", e);
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("member write-ahead log failed", failure);
+        }
+    }
+
+    private void finishFlush(ByteBuffer batch, long batchSequence, IOException error) {
+        batch.clear();
+        spare = batch;
+        flushing = false;
+        if (error != null) {
+            // 일부만 쓰였을 수 있으므로 이후의 기록은 모두 실패로 처리한다. (재시작 시 replay 가 잘린 꼬리를 버린다)
+            // 아직 쓰지 않은 기록도 저장소에 반영하지 않고 버린다.
+            failure = error;
+            pending.clear();
+            pendingMembers.clear();
+        } else {
+            durableSequence = batchSequence;
+            forceCount++;
+        }
+        lock.notifyAll();
+    }
+
+    private static void write(FileChannel out, ByteBuffer batch) throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            out.write(batch);
+        }
+        out.force(false);
+    }
+
+    private void waitForFlush() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for member write-ahead log", e);
+        }
+    }
+
+    private void put(byte[] record) {
+        if (pending.remaining() < record.length) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(pending.capacity() * 2, pending.position() + record.length));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        pending.put(record);
+    }
+
+    private interface RecordHandler {
+        void handle(Member member);
+    }
+
+    // @return 끝까지 온전하게 읽은 바이트 수
+    private long read(RecordHandler handler) throws IOException {
+        long validBytes = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(0)), BUFFER_BYTES));
+        CRC32 crc = new CRC32();
+        byte[] payload = new byte[256];
+        while (true) {
+            int length;
+            int checksum;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length < MIN_RECORD_BYTES || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+            } catch (EOFException e) {
+                break;
+            }
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            Member member = decode(ByteBuffer.wrap(payload, 0, length));
+            if (member == null) {
+                break;
+            }
+            handler.handle(member);
+            validBytes += HEADER_BYTES + length;
+        }
+        return validBytes;
+    }
+
+    // replay 는 MAX_RECORD_BYTES 보다 큰 기록을 깨진 기록으로 보고 그 뒤를 잘라내므로, 쓸 때부터 받지 않는다.
+    static byte[] encode(Member member) {
+        byte[] name = member.getName() == null ? null : member.getName().getBytes(StandardCharsets.UTF_8);
+        int length = MIN_RECORD_BYTES + (name == null ? 0 : name.length);
+        if (length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("member record too large: " + length + " bytes (max " + MAX_RECORD_BYTES + ")");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + length);
+        buffer.position(HEADER_BYTES);
+        buffer.putLong(member.getId());
+        buffer.put(member.getGrade() == null ? -1 : (byte) member.getGrade().ordinal());
+        buffer.putInt(name == null ? -1 : name.length);
+        if (name != null) {
+            buffer.put(name);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, length);
+        buffer.putInt(0, length);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    // @return 기록의 길이나 값이 맞지 않으면 null (깨진 기록)
+    static Member decode(ByteBuffer payload) {
+        if (payload.remaining() < MIN_RECORD_BYTES) {
+            return null;
+        }
+        long id = payload.getLong();
+        byte grade = payload.get();
+        int nameLength = payload.getInt();
+        if (nameLength < -1 || nameLength > payload.remaining() || grade >= GRADES.length) {
+            return null;
+        }
+        String name = null;
+        if (nameLength >= 0) {
+            name = new String(payload.array(), payload.arrayOffset() + payload.position(), nameLength, StandardCharsets.UTF_8);
+        }
+        return new Member(id, name, grade < 0 ? null : GRADES[grade]);
+    }
+}
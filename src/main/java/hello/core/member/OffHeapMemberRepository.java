@@ -0,0 +1,313 @@
+package hello.core.member;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public class OffHeapMemberRepository implements MemberRepository {
+
+    // 회원 데이터를 자바 힙이 아닌 direct ByteBuffer(off-heap)에 컬럼 단위로 저장한다.
+    // ids      : 행마다 long 8바이트
+    // nameRefs : 행마다 long 8바이트, 상위 32비트는 names 안의 시작 위치, 하위 32비트는 길이 (null 이름은 -1)
+    // grades   : 행마다 Grade ordinal 1바이트 (null 등급은 -1)
+    // names    : 이름을 UTF-8 로 이어 붙인 바이트
+    // 회원 한 명 당 Member, String, byte[], HashMap.Node, Long 객체 헤더가 사라지므로 힙이 작아지고 GC 멈춤 시간이 예측 가능해진다.
+
+    // findById 는 새 Member 를 만들지 않고, 스레드마다 하나씩 있는 MemberView(flyweight)를 해당 행에 맞춰 돌려준다.
+    // 주의 ! 반환된 Member 는 같은 스레드에서 다음 findById 를 호출하기 전까지만 유효하다.
+    // 값을 보관해야 한다면 getId(), getName(), getGrade() 로 꺼내서 복사해 두어야 한다.
+
+    // 같은 id 로 다시 저장하면 기존 행을 고치지 않고 새 행을 추가한 뒤 인덱스만 새 행으로 바꾼다.
+    // 그래서 조회하는 스레드는 이전 값과 새 값이 섞인 행을 보지 않는다. (이전 행의 공간은 재사용하지 않는다)
+    // 저장은 synchronized 로 한 스레드씩, 조회는 락 없이 처리한다.
+
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final Grade[] GRADES = Grade.values();
+
+    static final class Columns {
+        final ByteBuffer ids;
+        final ByteBuffer nameRefs;
+        final ByteBuffer grades;
+        final ByteBuffer names;
+
+        Columns(ByteBuffer ids, ByteBuffer nameRefs, ByteBuffer grades, ByteBuffer names) {
+            this.ids = ids;
+            this.nameRefs = nameRefs;
+            this.grades = grades;
+            this.names = names;
+        }
+
+        int rowCapacity() {
+            return grades.capacity();
+        }
+    }
+
+    private final LongIndex index;
+    private final ThreadLocal<MemberView> views = ThreadLocal.withInitial(() -> new MemberView(this));
+    private volatile Columns columns;
+    private int rows;
+    private int nameBytes;
+
+    public OffHeapMemberRepository() {
+        this(1024);
+    }
+
+    public OffHeapMemberRepository(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        index = new LongIndex(capacity);
+        columns = new Columns(
+                allocate(capacity * Long.BYTES),
+                allocate(capacity * Long.BYTES),
+                allocate(capacity),
+                allocate(capacity * 16));
+    }
+
+    // 이미 채워진 컬럼(예: 스냅샷 파일을 매핑한 버퍼)을 복사하지 않고 그대로 사용한다. 인덱스만 다시 만든다.
+    OffHeapMemberRepository(Columns columns, int rows, int nameBytes) {
+        this.index = new LongIndex(rows);
+        this.columns = columns;
+        this.rows = rows;
+        this.nameBytes = nameBytes;
+        ByteBuffer ids = columns.ids;
+        for (int row = 0; row < rows; row++) {
+            index.put(ids.getLong(row * Long.BYTES), row);
+        }
+    }
+
+    @Override
+    public synchronized void save(Member member) {
+        byte[] name = encodeName(member);
+        ensureCapacity(rows + 1, nameBytes + (name == null ? 0 : name.length));
+        append(member, name);
+    }
+
+    // 이름을 먼저 모두 인코딩해서 필요한 크기를 구한 뒤, 컬럼을 한 번만 늘리고 락도 한 번만 잡는다.
+    @Override
+    public void saveAll(Collection<Member> members) {
+        Member[] batch = members.toArray(new Member[0]);
+        byte[][] names = new byte[batch.length][];
+        long totalNameBytes = 0;
+        for (int i = 0; i < batch.length; i++) {
+            names[i] = encodeName(batch[i]);
+            totalNameBytes += names[i] == null ? 0 : names[i].length;
+        }
+        synchronized (this) {
+            if (nameBytes + totalNameBytes > Integer.MAX_VALUE) {
+                throw new IllegalStateException("off-heap member store is full");
+            }
+            ensureCapacity(rows + batch.length, nameBytes + (int) totalNameBytes);
+            index.ensureCapacity(index.size() + batch.length);
+            for (int i = 0; i < batch.length; i++) {
+                append(batch[i], names[i]);
+            }
+        }
+    }
+
+    private static byte[] encodeName(Member member) {
+        return member.getName() == null ? null : member.getName().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 공간은 호출하는 쪽에서 미리 확보해 둔다.
+    private void append(Member member, byte[] name) {
+        long memberId = member.getId();
+        int nameLength = name == null ? 0 : name.length;
+        Columns c = columns;
+        if (name != null) {
+            ByteBuffer names = c.names.duplicate();
+            names.position(nameBytes);
+            names.put(name);
+        }
+        c.ids.putLong(rows * Long.BYTES, memberId);
+        c.nameRefs.putLong(rows * Long.BYTES, name == null ? -1L : ((long) nameBytes << 32) | nameLength);
+        c.grades.put(rows, member.getGrade() == null ? -1 : (byte) member.getGrade().ordinal());
+
+        // 행을 다 채운 뒤에 인덱스에 등록해야 조회하는 스레드가 채워지는 중인 행을 보지 않는다.
+        index.put(memberId, rows);
+        rows++;
+        nameBytes += nameLength;
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        int row = index.get(memberId);
+        if (row < 0) {
+            return null;
+        }
+        MemberView view = views.get();
+        view.row = row;
+        return view;
+    }
+
+    // findById 와 같지만 flyweight 가 아닌 힙 Member 복사본을 돌려준다. (SnapshotMemberRepository 처럼 다른 저장소 뒤에서 읽을 때)
+    Member copyById(long memberId) {
+        int row = index.get(memberId);
+        return row < 0 ? null : new Member(memberId, nameAt(row), gradeAt(row));
+    }
+
+    // 여러 건을 한번에 돌려줘야 하므로 flyweight 가 아닌 힙 Member 로 복사해서 반환한다.
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        Member[] result = new Member[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            int row = index.get(memberIds[i]);
+            if (row >= 0) {
+                result[i] = new Member(memberIds[i], nameAt(row), gradeAt(row));
+            }
+        }
+        return result;
+    }
+
+    // 같은 id 로 다시 저장해서 생긴 이전 행은 건너뛴다. (뒤에서부터 읽어서 id 마다 마지막 행만 넘겨준다)
+    // 행은 추가만 되고 고쳐지지 않으므로, 락 안에서 행 수만 읽고 나머지는 락 없이 읽는다.
+    // 넘겨주는 회원은 flyweight 가 아닌 힙 Member 복사본이다.
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        int rowCount = rows();
+        LongIndex seen = new LongIndex(rowCount);
+        for (int row = rowCount - 1; row >= 0; row--) {
+            long memberId = idAt(row);
+            if (seen.get(memberId) < 0) {
+                seen.put(memberId, row);
+                action.accept(new Member(memberId, nameAt(row), gradeAt(row)));
+            }
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // 스냅샷 용도
+    synchronized Columns columns() {
+        return columns;
+    }
+
+    synchronized int rows() {
+        return rows;
+    }
+
+    synchronized int nameBytes() {
+        return nameBytes;
+    }
+
+    long idAt(int row) {
+        return columns.ids.getLong(row * Long.BYTES);
+    }
+
+    Grade gradeAt(int row) {
+        byte ordinal = columns.grades.get(row);
+        return ordinal < 0 ? null : GRADES[ordinal];
+    }
+
+    String nameAt(int row) {
+        Columns c = columns;
+        long ref = c.nameRefs.getLong(row * Long.BYTES);
+        if (ref == -1L) {
+            return null;
+        }
+        int offset = (int) (ref >>> 32);
+        byte[] bytes = new byte[(int) ref];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = c.names.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 공간이 부족하면 두 배 크기의 새 버퍼로 옮긴 뒤 volatile 필드로 한번에 교체한다.
+    private Columns ensureCapacity(int rowCount, int nameByteCount) {
+        Columns c = columns;
+        int rowCapacity = c.rowCapacity();
+        int nameCapacity = c.names.capacity();
+        if (rowCount <= rowCapacity && nameByteCount <= nameCapacity) {
+            return c;
+        }
+        if (rowCount > rowCapacity) {
+            rowCapacity = grow(rowCapacity, rowCount);
+            c = new Columns(
+                    copy(c.ids, rows * Long.BYTES, rowCapacity * Long.BYTES),
+                    copy(c.nameRefs, rows * Long.BYTES, rowCapacity * Long.BYTES),
+                    copy(c.grades, rows, rowCapacity),
+                    c.names);
+        }
+        if (nameByteCount > nameCapacity) {
+            c = new Columns(c.ids, c.nameRefs, c.grades, copy(c.names, nameBytes, grow(nameCapacity, nameByteCount)));
+        }
+        columns = c;
+        return c;
+    }
+
+    private static int grow(int capacity, int needed) {
+        long grown = Math.max((long) capacity * 2, needed);
+        if (grown > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IllegalStateException("off-heap member store is full");
+        }
+        return (int) grown;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ORDER);
+    }
+
+    private static ByteBuffer copy(ByteBuffer source, int used, int capacity) {
+        ByteBuffer target = allocate(capacity);
+        ByteBuffer from = source.duplicate();
+        from.clear().limit(used);
+        target.put(from);
+        target.clear();
+        return target;
+    }
+
+    // 행 번호만 들고 있다가 getter 가 호출될 때 off-heap 컬럼에서 값을 읽는 Member
+    private static final class MemberView extends Member {
+
+        private final OffHeapMemberRepository repository;
+        private int row;
+
+        MemberView(OffHeapMemberRepository repository) {
+            super(null, null, null);
+            this.repository = repository;
+        }
+
+        @Override
+        public Long getId() {
+            return repository.idAt(row);
+        }
+
+        @Override
+        public String getName() {
+            return repository.nameAt(row);
+        }
+
+        @Override
+        public Grade getGrade() {
+            return repository.gradeAt(row);
+        }
+
+        @Override
+        public void setId(Long id) {
+            throw new UnsupportedOperationException("off-heap member view is read-only");
+        }
+
+        @Override
+        public void setName(String name) {
+            throw new UnsupportedOperationException("off-heap member view is read-only");
+        }
+
+        @Override
+        public void setGrade(Grade grade) {
+            throw new UnsupportedOperationException("off-heap member view is read-only");
+        }
+
+        @Override
+        public String toString() {
+            return "Member{id=" + getId() + ", name='" + getName() + "', grade=" + getGrade() + "}";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package hello.core.member;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public class PrimitiveMemberRepository implements MemberRepository {
+
+    // id 는 LongIndex(long -> 행 번호)로 찾고, 회원은 행 번호 순서대로 Member[] 에 담는다.
+    // 엔트리마다 HashMap.Node, Long 객체가 생기지 않아서 회원 수가 많아도 힙과 GC 부담이 작다.
+    // findById(long) 로 조회하면 조회 경로에서 객체를 하나도 만들지 않는다.
+
+    // 저장은 synchronized 로 한 스레드씩, 조회는 락 없이 처리한다.
+    private static final VarHandle MEMBERS = MethodHandles.arrayElementVarHandle(Member[].class);
+
+    private final LongIndex index;
+    private volatile Member[] members;
+    private int size;
+
+    public PrimitiveMemberRepository() {
+        this(1024);
+    }
+
+    public PrimitiveMemberRepository(int expectedSize) {
+        index = new LongIndex(expectedSize);
+        members = new Member[Math.max(16, expectedSize)];
+    }
+
+    @Override
+    public synchronized void save(Member member) {
+        ensureCapacity(size + 1);
+        insert(member);
+    }
+
+    // 락은 한 번만 잡고, 배열과 인덱스는 들어올 회원 수 만큼 미리 늘려둔다.
+    @Override
+    public synchronized void saveAll(Collection<Member> members) {
+        ensureCapacity(size + members.size());
+        for (Member member : members) {
+            insert(member);
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        int row = index.get(memberId);
+        return row < 0 ? null : (Member) MEMBERS.getAcquire(members, row);
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        Member[] result = new Member[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            int row = index.get(memberIds[i]);
+            if (row >= 0) {
+                result[i] = (Member) MEMBERS.getAcquire(members, row);
+            }
+        }
+        return result;
+    }
+
+    // 락 안에서는 배열과 행 수만 읽고, 회원은 락 밖에서 넘겨준다.
+    // 행은 채운 뒤에 행 수를 늘리므로 읽어둔 행 수 안쪽은 모두 채워져 있다.
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        Member[] rows;
+        int rowCount;
+        synchronized (this) {
+            rows = members;
+            rowCount = size;
+        }
+        for (int row = 0; row < rowCount; row++) {
+            action.accept((Member) MEMBERS.getAcquire(rows, row));
+        }
+    }
+
+    private void insert(Member member) {
+        long memberId = member.getId();
+        int row = index.get(memberId);
+        if (row >= 0) {
+            MEMBERS.setRelease(members, row, member);
+            return;
+        }
+        // 행을 먼저 채우고 인덱스에 등록해야 조회하는 스레드가 빈 행을 보지 않는다.
+        members[size] = member;
+        index.put(memberId, size);
+        size++;
+    }
+
+    private void ensureCapacity(int expectedSize) {
+        if (expectedSize > members.length) {
+            members = Arrays.copyOf(members, Math.max(expectedSize, members.length * 2));
+        }
+        index.ensureCapacity(expectedSize);
+    }
+}
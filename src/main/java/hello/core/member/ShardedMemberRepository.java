@@ -0,0 +1,184 @@
+package hello.core.member;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+@Component
+@Primary
+public class ShardedMemberRepository implements MemberRepository, AutoCloseable {
+
+    // memberId 해시로 회원을 N 개의 파티션에 나눠 담는다.
+    // 파티션마다 저장소(PrimitiveMemberRepository)와 락이 따로 있어서, 서로 다른 파티션에 대한 join 은 서로 기다리지 않는다.
+    // 조회는 원래 락이 없고, 저장은 파티션 수 만큼 병렬로 처리되어 코어 수에 맞춰 처리량이 늘어난다.
+
+    // 파티션 수는 application.properties 의 member.repository.partitions 로 정한다.
+    // member.repository.partition-executors=true 이면 파티션마다 전용 스레드를 하나씩 두고
+    // saveAll, findAllById 같은 대량 작업을 파티션 별로 동시에 처리한다.
+
+    private final PrimitiveMemberRepository[] partitions;
+    private final ExecutorService[] executors;
+
+    public ShardedMemberRepository(@Value("${member.repository.partitions:8}") int partitions,
+                                   @Value("${member.repository.partition-executors:false}") boolean partitionExecutors) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("member.repository.partitions must be positive: " + partitions);
+        }
+        this.partitions = new PrimitiveMemberRepository[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new PrimitiveMemberRepository();
+        }
+        if (partitionExecutors) {
+            executors = new ExecutorService[partitions];
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                executors[i] = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "member-partition-" + partition);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        } else {
+            executors = null;
+        }
+    }
+
+    @Override
+    public void save(Member member) {
+        partitionOf(member.getId()).save(member);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return partitionOf(memberId).findById(memberId);
+    }
+
+    // 파티션 별로 나눈 뒤 파티션마다 saveAll 을 한 번씩 호출한다. (파티션 락도 한 번씩만 잡는다)
+    @Override
+    public void saveAll(Collection<Member> members) {
+        List<List<Member>> batches = new ArrayList<>(partitions.length);
+        int expected = members.size() / partitions.length + 1;
+        for (int i = 0; i < partitions.length; i++) {
+            batches.add(new ArrayList<>(expected));
+        }
+        for (Member member : members) {
+            batches.get(indexOf(member.getId())).add(member);
+        }
+
+        runPerPartition(partition -> {
+            List<Member> batch = batches.get(partition);
+            if (!batch.isEmpty()) {
+                partitions[partition].saveAll(batch);
+            }
+        });
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        // 파티션 별로 조회할 위치를 모아둔다.
+        int[] counts = new int[partitions.length];
+        int[] owner = new int[memberIds.length];
+        for (int i = 0; i < memberIds.length; i++) {
+            owner[i] = indexOf(memberIds[i]);
+            counts[owner[i]]++;
+        }
+        int[][] positions = new int[partitions.length][];
+        for (int p = 0; p < partitions.length; p++) {
+            positions[p] = new int[counts[p]];
+            counts[p] = 0;
+        }
+        for (int i = 0; i < memberIds.length; i++) {
+            positions[owner[i]][counts[owner[i]]++] = i;
+        }
+
+        Member[] result = new Member[memberIds.length];
+        runPerPartition(partition -> {
+            int[] at = positions[partition];
+            long[] ids = new long[at.length];
+            for (int i = 0; i < at.length; i++) {
+                ids[i] = memberIds[at[i]];
+            }
+            Member[] found = partitions[partition].findAllById(ids);
+            for (int i = 0; i < at.length; i++) {
+                result[at[i]] = found[i];
+            }
+        });
+        return result;
+    }
+
+    // 파티션마다 차례로 넘겨준다. 락은 파티션 하나씩만 잠깐 잡는다.
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        for (PrimitiveMemberRepository partition : partitions) {
+            partition.forEach(action);
+        }
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        if (executors != null) {
+            for (ExecutorService executor : executors) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private interface PartitionTask {
+        void run(int partition);
+    }
+
+    // 전용 스레드가 있으면 파티션마다 동시에, 없으면 호출한 스레드에서 차례대로 실행한다.
+    private void runPerPartition(PartitionTask task) {
+        if (executors == null) {
+            for (int p = 0; p < partitions.length; p++) {
+                task.run(p);
+            }
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(partitions.length);
+        for (int p = 0; p < partitions.length; p++) {
+            int partition = p;
+            futures.add(executors[p].submit(() -> task.run(partition)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for member partitions", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("member partition task failed", e.getCause());
+        }
+    }
+
+    private PrimitiveMemberRepository partitionOf(long memberId) {
+        return partitions[indexOf(memberId)];
+    }
+
+    // 연속된 id 도 파티션에 고르게 퍼지도록 섞은 뒤 상위 비트를 사용한다.
+    private int indexOf(long memberId) {
+        long h = memberId * 0x9E3779B97F4A7C15L;
+        return (int) ((h >>> 33) % partitions.length);
+    }
+}
@@ -0,0 +1,166 @@
+package hello.core.member;
+
+import hello.core.common.AsyncLogWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class SnapshotMemberRepository implements MemberRepository, Closeable {
+
+    // 저장소 앞에 스냅샷(MemberSnapshot)을 붙이는 데코레이터
+    // 생성될 때 스냅샷 파일이 있으면 메모리에 매핑만 하고(MemberSnapshot.load), 회원을 감싼 저장소로 옮겨 담지 않는다.
+    // 그래서 시작 비용은 id 인덱스를 만드는 것뿐이고, 회원 수만큼 Member 를 만들지 않는다.
+    // 조회는 감싼 저장소(이후에 저장된 회원)를 먼저 보고, 없으면 매핑된 스냅샷에서 찾는다. 저장은 감싼 저장소에만 한다.
+    // 스냅샷의 회원은 바뀌지 않으므로, 같은 id 를 다시 저장하면 감싼 저장소의 회원이 스냅샷의 회원을 가린다.
+    // 실행 중에는 intervalMillis 마다, 종료할 때(close)는 한 번 더 두 저장소를 합쳐서 스냅샷을 쓴다.
+    // 스냅샷은 주기적으로만 쓰므로 마지막 스냅샷 이후의 저장은 비정상 종료 시 사라진다. 모든 저장을 남기려면 write-ahead log 를 함께 사용한다.
+    // 주의: 매핑은 프로세스가 끝날 때까지 유지된다. 새 스냅샷은 이름 바꾸기로 교체하므로 매핑된 이전 파일은 그대로 읽을 수 있다. (POSIX 기준)
+
+    private final MemberRepository memberRepository;
+    private final OffHeapMemberRepository snapshot;
+    private final Path path;
+    private final AsyncLogWriter logWriter;
+    private final ScheduledExecutorService writer;
+
+    public SnapshotMemberRepository(MemberRepository memberRepository, Path path, long intervalMillis) throws IOException {
+        this(memberRepository, path, intervalMillis, null);
+    }
+
+    // logWriter 가 없으면(스프링 컨테이너 없이 사용할 때) 표준 출력으로 남긴다.
+    public SnapshotMemberRepository(MemberRepository memberRepository, Path path, long intervalMillis,
+                                    AsyncLogWriter logWriter) throws IOException {
+        this.memberRepository = memberRepository;
+        this.path = path;
+        this.logWriter = logWriter;
+        this.snapshot = Files.exists(path) ? MemberSnapshot.load(path) : null;
+        if (snapshot != null) {
+            log("member snapshot mapped: " + path + ", members=" + snapshot.size());
+        }
+        if (intervalMillis > 0) {
+            writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "member-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writer.scheduleWithFixedDelay(this::writeQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            writer = null;
+        }
+    }
+
+    @Override
+    public void save(Member member) {
+        memberRepository.save(member);
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        memberRepository.saveAll(members);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    // 스냅샷에서 찾은 회원은 flyweight 가 아닌 힙 복사본이다. (스냅샷에 있는 회원을 처음 조회할 때 한 번 만든다)
+    @Override
+    public Member findById(long memberId) {
+        Member member = memberRepository.findById(memberId);
+        if (member == null && snapshot != null) {
+            member = snapshot.copyById(memberId);
+        }
+        return member;
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        Member[] members = memberRepository.findAllById(memberIds);
+        if (snapshot != null) {
+            for (int i = 0; i < members.length; i++) {
+                if (members[i] == null) {
+                    members[i] = snapshot.copyById(memberIds[i]);
+                }
+            }
+        }
+        return members;
+    }
+
+    // 감싼 저장소의 회원을 먼저 넘기고, 스냅샷에서는 감싼 저장소에 없는 id 만 넘긴다.
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        if (snapshot == null) {
+            memberRepository.forEach(action);
+            return;
+        }
+        LongIndex saved = new LongIndex(16);
+        memberRepository.forEach(member -> {
+            saved.put(member.getId(), 0);
+            action.accept(member);
+        });
+        snapshot.forEach(member -> {
+            if (saved.get(member.getId()) < 0) {
+                action.accept(member);
+            }
+        });
+    }
+
+    // 지금 저장된 회원(스냅샷 + 이후 저장)으로 스냅샷을 쓴다. 주기적으로 쓰는 것과 겹치지 않도록 한 번에 하나씩만 쓴다.
+    public synchronized void writeSnapshot() throws IOException {
+        MemberSnapshot.write(this, path);
+    }
+
+    // 마지막 스냅샷을 쓰고, 감싼 저장소도 닫는다.
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            writeSnapshot();
+        } finally {
+            if (memberRepository instanceof AutoCloseable) {
+                closeDelegate((AutoCloseable) memberRepository);
+            }
+        }
+    }
+
+    // 쓰기에 실패해도 이전 스냅샷은 그대로 남아 있으므로, 다음 주기에 다시 시도한다.
+    private void writeQuietly() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log("member snapshot write failed: " + path + ", " + e);
+        }
+    }
+
+    private void log(String message) {
+        if (logWriter != null) {
+            logWriter.log("member-snapshot", null, message);
+        } else {
+            System.out.println(message);
+        }
+    }
+
+    private static void closeDelegate(AutoCloseable closeable) throws IOException {
+        try {
+            closeable.close();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
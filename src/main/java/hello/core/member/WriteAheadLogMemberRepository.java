@@ -0,0 +1,94 @@
+package hello.core.member;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public class WriteAheadLogMemberRepository implements MemberRepository, Closeable {
+
+    // 메모리 저장소 앞에 write-ahead log 를 붙이는 데코레이터
+    // MemberServiceImpl 은 MemberRepository 인터페이스만 의존하므로, 설정에서 이 클래스로 감싸기만 하면 join 이 영속화된다.
+    // 생성될 때 로그를 읽어서 감싼 저장소를 다시 채운다.
+
+    // save 는 기록이 디스크에 반영(force)되고 저장소에도 반영된 뒤에 반환된다.
+    // 동시에 들어온 save 는 group commit 으로 force 한 번에 함께 반영된다.
+    // 저장소에는 force 가 끝난 뒤에 반영되므로, 다른 스레드의 findById 에는 디스크에 있는 회원만 보인다.
+    // 로그 쓰기에 실패하면 save 는 UncheckedIOException 을 던지고, 그 회원은 저장소에도 반영되지 않는다. 그 뒤의 save 도 모두 실패한다.
+    // 회원 한 명의 기록이 1MB 를 넘으면 IllegalArgumentException 을 던진다.
+
+    private final MemberRepository memberRepository;
+    private final MemberWriteAheadLog log;
+
+    public WriteAheadLogMemberRepository(MemberRepository memberRepository, Path logPath) throws IOException {
+        this.memberRepository = memberRepository;
+        this.log = new MemberWriteAheadLog(logPath, memberRepository);
+        log.replay();
+    }
+
+    @Override
+    public void save(Member member) {
+        long sequence = log.append(member);
+        log.sync(sequence);
+    }
+
+    // 여러 건을 버퍼에 한번에 추가하고 force 도 한 번만 기다린다.
+    @Override
+    public void saveAll(Collection<Member> members) {
+        long sequence = log.appendAll(members);
+        log.sync(sequence);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberRepository.findById(memberId);
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return memberRepository.findById(memberId);
+    }
+
+    @Override
+    public Member[] findAllById(long[] memberIds) {
+        return memberRepository.findAllById(memberIds);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Member> action) {
+        memberRepository.forEach(action);
+    }
+
+    // 로그를 id 별 마지막 기록만 남긴 스냅샷으로 줄인다.
+    public void compact() throws IOException {
+        log.compact();
+    }
+
+    // 로그를 닫고, 감싼 저장소도 닫는다.
+    @Override
+    public void close() throws IOException {
+        try {
+            log.close();
+        } finally {
+            if (memberRepository instanceof AutoCloseable) {
+                closeDelegate((AutoCloseable) memberRepository);
+            }
+        }
+    }
+
+    // 테스트 용도
+    public MemberWriteAheadLog getLog() {
+        return log;
+    }
+
+    private static void closeDelegate(AutoCloseable closeable) throws IOException {
+        try {
+            closeable.close();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -6,12 +6,19 @@ public class Order {
     private String itemName;
     private int itemPrice;
     private int discountPrice;
+    // 할인 금액을 계산할 때 사용한 할인 정책 버전 (DiscountPolicy.getVersion)
+    private long discountPolicyVersion;
 
     public Order(Long memberId, String itemName, int itemPrice, int discountPrice) {
+        this(memberId, itemName, itemPrice, discountPrice, 0);
+    }
+
+    public Order(Long memberId, String itemName, int itemPrice, int discountPrice, long discountPolicyVersion) {
         this.memberId = memberId;
         this.itemName = itemName;
         this.itemPrice = itemPrice;
         this.discountPrice = discountPrice;
+        this.discountPolicyVersion = discountPolicyVersion;
     }
 
     public int calculatePrice() {
@@ -50,6 +57,10 @@ public class Order {
         this.discountPrice = discountPrice;
     }
 
+    public long getDiscountPolicyVersion() {
+        return discountPolicyVersion;
+    }
+
     @Override
     public String toString() {
         return "Order{" +
@@ -57,6 +68,7 @@ public class Order {
                 ", itemName='" + itemName + '\'' +
                 ", itemPrice=" + itemPrice +
                 ", discountPrice=" + discountPrice +
+                ", discountPolicyVersion=" + discountPolicyVersion +
                 '}';
     }
 }
@@ -1,5 +1,15 @@
 package hello.core.order;
 
+import java.util.function.Consumer;
+
 public interface OrderService {
     Order createOrder(Long memberId, String itemName, int itemPrice);
+
+    // 대량 주문 생성
+    // 세 배열의 같은 위치가 하나의 주문이 되고, 만들어진 주문은 입력 순서대로 sink 로 넘긴다.
+    void createOrders(long[] memberIds, String[] itemNames, int[] itemPrices, Consumer<? super Order> sink);
+
+    // 아주 큰 배치를 여러 코어에서 나눠서 계산한다.
+    // @return 입력과 같은 순서의 주문 배열
+    Order[] createOrdersParallel(long[] memberIds, String[] itemNames, int[] itemPrices);
 }
@@ -4,14 +4,21 @@ import hello.core.annotation.MainDiscountPolicy;
 import hello.core.discount.DiscountPolicy;
 import hello.core.discount.FixDiscountPolicy;
 import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.Grade;
 import hello.core.member.Member;
 import hello.core.member.MemberRepository;
 import hello.core.member.MemoryMemberRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
 @Component
 
 public class OrderServiceImpl implements OrderService {
@@ -24,6 +31,9 @@ public class OrderServiceImpl implements OrderService {
     private final MemberRepository memberRepository;
     private final DiscountPolicy discountPolicy;
 
+    // 병렬 계산 시 한 작업이 맡는 최소 주문 수, 배치가 이보다 작으면 나누지 않고 순차로 계산한다.
+    private int minChunkSize = 4096;
+
     // 필드 주입
     // 이름 그대로 필드에 바로 주입하는 방법
     // 코드가 간결해서 좋아보이지만, 외부에서 변경이 불가능해서 테스트 하기 힘들다는 치명적인 단점이 있다.
@@ -88,11 +98,128 @@ public class OrderServiceImpl implements OrderService {
     @Override
     public Order createOrder(Long memberId, String itemName, int itemPrice) {
         Member member = memberRepository.findById(memberId);
-        int discountPrice = discountPolicy.discount(member, itemPrice);
+        // 정책이 실행 중에 바뀌어도 주문 하나는 한 스냅샷으로 계산하고, 그 버전을 주문에 남긴다.
+        DiscountPolicy policy = discountPolicy.snapshot();
+        int discountPrice = policy.discount(member, itemPrice);
+
+        return  new Order(memberId, itemName, itemPrice, discountPrice, policy.getVersion());
+    }
+
+    // createOrder 를 여러 번 호출하는 대신
+    // 1. 회원을 findAllById 로 한 번에 조회하고
+    // 2. 등급과 가격을 배열로 모아서 할인 정책의 discountAll 을 배치당 한 번만 호출한 뒤
+    // 3. 주문을 만들어 sink 로 넘긴다.
+    // 프록시 호출, 저장소 조회, 할인 정책의 가상 호출 비용을 주문 건수 만큼이 아니라 한 번만 낸다.
+    // 없는 회원의 주문이 있으면 IllegalArgumentException 을 던진다. (주문을 하나도 만들지 않는다)
+    @Override
+    public void createOrders(long[] memberIds, String[] itemNames, int[] itemPrices, Consumer<? super Order> sink) {
+        int count = memberIds.length;
+        if (itemNames.length != count || itemPrices.length != count) {
+            throw new IllegalArgumentException("memberIds, itemNames, itemPrices must have the same length");
+        }
 
-        return  new Order(memberId, itemName, itemPrice, discountPrice);
+        Member[] members = memberRepository.findAllById(memberIds);
+        // 배치 전체를 한 스냅샷으로 계산한다.
+        DiscountPolicy policy = discountPolicy.snapshot();
+        long version = policy.getVersion();
+        int[] discountPrices = discountAll(policy, members, memberIds, itemPrices, 0, count);
+        for (int i = 0; i < count; i++) {
+            sink.accept(new Order(memberIds[i], itemNames[i], itemPrices[i], discountPrices[i], version));
+        }
     }
     
+    // 할인 계산은 부수 효과가 없어서 나눠서 동시에 계산해도 결과가 같다.
+    // 배열을 minChunkSize 이하가 될 때까지 반으로 나누고 ForkJoinPool(공용 풀)에서 계산한다.
+    // 각 작업은 자기 구간의 회원 조회, 할인 계산, 주문 생성을 모두 하고 결과 배열의 같은 위치에 쓴다.
+    // 그래서 어떤 순서로 끝나든 결과 순서는 입력 순서와 같다.
+    @Override
+    public Order[] createOrdersParallel(long[] memberIds, String[] itemNames, int[] itemPrices) {
+        int count = memberIds.length;
+        if (itemNames.length != count || itemPrices.length != count) {
+            throw new IllegalArgumentException("memberIds, itemNames, itemPrices must have the same length");
+        }
+
+        Order[] orders = new Order[count];
+        // 모든 작업이 같은 스냅샷을 사용해야 구간마다 다른 정책으로 계산되지 않는다.
+        DiscountPolicy policy = discountPolicy.snapshot();
+        if (count <= minChunkSize) {
+            price(policy, memberIds, itemNames, itemPrices, 0, count, orders);
+        } else {
+            ForkJoinPool.commonPool().invoke(new PricingTask(policy, memberIds, itemNames, itemPrices, 0, count, orders));
+        }
+        return orders;
+    }
+
+    // 선택적이고, 변경 가능성이 있는 설정이라 수정자 주입을 사용
+    @Autowired
+    public void setMinChunkSize(@Value("${order.pricing.min-chunk-size:4096}") int minChunkSize) {
+        if (minChunkSize < 1) {
+            throw new IllegalArgumentException("order.pricing.min-chunk-size must be positive: " + minChunkSize);
+        }
+        this.minChunkSize = minChunkSize;
+    }
+
+    private void price(DiscountPolicy policy, long[] memberIds, String[] itemNames, int[] itemPrices, int from, int to, Order[] orders) {
+        Member[] members = memberRepository.findAllById(Arrays.copyOfRange(memberIds, from, to));
+        long version = policy.getVersion();
+        int[] discountPrices = discountAll(policy, members, memberIds, itemPrices, from, to);
+        for (int i = from; i < to; i++) {
+            orders[i] = new Order(memberIds[i], itemNames[i], itemPrices[i], discountPrices[i - from], version);
+        }
+    }
+
+    // members 는 memberIds[from, to) 를 조회한 결과
+    // 등급(없으면 -1)과 가격을 배열로 모아서 discountAll 을 한 번 호출한다.
+    // @return from 부터의 할인 금액
+    private static int[] discountAll(DiscountPolicy policy, Member[] members, long[] memberIds, int[] itemPrices, int from, int to) {
+        int count = to - from;
+        byte[] gradeOrdinals = new byte[count];
+        for (int i = 0; i < count; i++) {
+            Member member = members[i];
+            if (member == null) {
+                throw new IllegalArgumentException("member not found: " + memberIds[from + i]);
+            }
+            Grade grade = member.getGrade();
+            gradeOrdinals[i] = grade == null ? -1 : (byte) grade.ordinal();
+        }
+        int[] prices = from == 0 && to == itemPrices.length ? itemPrices : Arrays.copyOfRange(itemPrices, from, to);
+        int[] discountPrices = new int[count];
+        policy.discountAll(gradeOrdinals, prices, discountPrices);
+        return discountPrices;
+    }
+
+    private class PricingTask extends RecursiveAction {
+
+        private final DiscountPolicy policy;
+        private final long[] memberIds;
+        private final String[] itemNames;
+        private final int[] itemPrices;
+        private final int from;
+        private final int to;
+        private final Order[] orders;
+
+        PricingTask(DiscountPolicy policy, long[] memberIds, String[] itemNames, int[] itemPrices, int from, int to, Order[] orders) {
+            this.policy = policy;
+            this.memberIds = memberIds;
+            this.itemNames = itemNames;
+            this.itemPrices = itemPrices;
+            this.from = from;
+            this.to = to;
+            this.orders = orders;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minChunkSize) {
+                price(policy, memberIds, itemNames, itemPrices, from, to, orders);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PricingTask(policy, memberIds, itemNames, itemPrices, from, middle, orders),
+                    new PricingTask(policy, memberIds, itemNames, itemPrices, middle, to, orders));
+        }
+    }
+
     //테스트 용도
     public MemberRepository getMemberRepository() {
         return memberRepository;
@@ -0,0 +1,48 @@
+package hello.core.web;
+
+import hello.core.common.MyLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+@Component
+public class AsyncWorkExecutor {
+
+    // 비동기 엔드포인트(CompletableFuture 반환)의 실제 작업을 실행하는 전용 스레드 풀
+    // 컨트롤러는 작업을 넘기고 바로 돌아가므로, 뒤쪽 작업이 느려도 톰캣 요청 스레드는 다른 요청을 받을 수 있다.
+    // 작업을 넘길 때 MyLogger 의 요청 정보(uuid, URL)를 함께 넘겨서 작업 스레드의 로그도 같은 요청으로 남는다.
+    // 플랫폼 스레드 풀의 대기열이 가득 차면 supplyAsync 가 RejectedExecutionException 을 던진다. (요청을 쌓아두지 않고 바로 실패시킨다)
+
+    // Executor 를 구현하지 않는 이유
+    // Executor 타입 빈이 있으면 스프링 부트의 기본 작업 실행기(applicationTaskExecutor)가 만들어지지 않는다.
+
+    private final MyLogger myLogger;
+    private final ExecutorService executor;
+
+    @Autowired
+    public AsyncWorkExecutor(MyLogger myLogger,
+                             @Value("${web.async.pool-size:16}") int poolSize,
+                             @Value("${web.async.queue-capacity:1000}") int queueCapacity,
+                             @Value("${web.virtual-threads.enabled:false}") boolean virtualThreads) {
+        this(myLogger, RequestExecutors.create(virtualThreads, poolSize, queueCapacity, "async-work"));
+    }
+
+    public AsyncWorkExecutor(MyLogger myLogger, ExecutorService executor) {
+        this.myLogger = myLogger;
+        this.executor = executor;
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(myLogger.wrap(task), executor);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,39 @@
+package hello.core.web;
+
+import hello.core.discount.ReloadableDiscountPolicy;
+import hello.core.discount.RuleDiscountPolicy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Arrays;
+
+@Controller
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "discount.management.enabled", havingValue = "true")
+public class DiscountPolicyController {
+
+    // 할인 정책 관리용 API (discount.management.enabled=true 일 때만 등록)
+    // GET  /discount-policy : 현재 정책과 버전
+    // POST /discount-policy : 본문의 규칙(형식은 DiscountRule 참고)으로 정책을 교체하고 새 버전을 돌려준다.
+    // 규칙이 잘못되었으면 예외가 나고 기존 정책은 그대로 유지된다.
+
+    private final ReloadableDiscountPolicy discountPolicy;
+
+    @GetMapping("discount-policy")
+    @ResponseBody
+    public String current() {
+        return discountPolicy.snapshot().toString();
+    }
+
+    @PostMapping("discount-policy")
+    @ResponseBody
+    public String update(@RequestBody String rules) {
+        long version = discountPolicy.update(RuleDiscountPolicy.parse(Arrays.asList(rules.split("\\R"))));
+        return "version=" + version;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
@@ -18,8 +19,9 @@ public class LogDemoController {
     // mylogger를 찾을 수있는 대체자를 주입 받는것
     // private final ObjectProvider<MyLogger> myLoggerObjectProvider
 
-    // 프록시 사용 시
+    // 프록시 사용 시 (지금은 스레드별 요청 정보를 사용하는 싱글톤)
     private final MyLogger myLogger;
+    private final AsyncWorkExecutor asyncWorkExecutor;
 
     @RequestMapping("log-demo")
     @ResponseBody
@@ -45,6 +47,8 @@ public class LogDemoController {
         // 사실 Provider를 사용하든, 프록시를 사용하든 핵심 아이디어는 진짜 객체 조회를 꼭 필요한 시점까지 지연처리 한다는 점 !!!!
         // 단지 애노테이션 설정 변경으로 원본 객체를 프록시 객체로 대체할 수 있다. 이것이 바로 다형성과 DI 컨테이너가 가진 큰 장점 !
         // 꼭 웹 스코프가 아니어도 프록시는 사용할 수 있다.
+
+        // 지금 MyLogger 는 프록시가 아닌 싱글톤이다. 요청 정보는 MyLoggerFilter 가 스레드마다 채워둔다. (MyLogger 참고)
         System.out.println("myLogger = " + myLogger.getClass());
         myLogger.setRequestURL(requestURL);
 
@@ -52,4 +56,17 @@ public class LogDemoController {
         logDemoService.logic("testId");
         return "OK";
     }
+
+    // 비동기 버전
+    // 서비스 로직은 AsyncWorkExecutor 에서 실행하고, 요청 스레드는 CompletableFuture 를 돌려주고 바로 반환된다.
+    // 스프링 MVC 가 서블릿 비동기 처리를 시작하고, 작업이 끝나면 결과로 응답한다.
+    @RequestMapping("log-demo-async")
+    @ResponseBody
+    public CompletableFuture<String> logDemoAsync() {
+        myLogger.log("controller test (async)");
+        return asyncWorkExecutor.supplyAsync(() -> {
+            logDemoService.logic("testId");
+            return "OK";
+        });
+    }
 }
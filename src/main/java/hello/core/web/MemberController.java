@@ -0,0 +1,105 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+public class MemberController {
+
+    // 한 번에 저장하는 회원 수 (joinAll)
+    private static final int BATCH_SIZE = 1024;
+
+    private final MemberService memberService;
+    private final ObjectMapper objectMapper;
+
+    // ObjectMapper 빈은 스프링 부트(JacksonAutoConfiguration)가 등록한다.
+    // 부트 없이 AutoAppConfig 로 컴포넌트 스캔할 때는 없으므로 기본 ObjectMapper 를 사용한다.
+    public MemberController(MemberService memberService, ObjectProvider<ObjectMapper> objectMapper) {
+        this.memberService = memberService;
+        this.objectMapper = objectMapper.getIfAvailable(ObjectMapper::new);
+    }
+
+    // 회원 가입, id 가 없으면 400
+    @PostMapping("members")
+    @ResponseBody
+    public ResponseEntity<Member> join(@RequestBody MemberRequest request) {
+        if (request.getId() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Member member = request.toMember();
+        memberService.join(member);
+        return ResponseEntity.ok(member);
+    }
+
+    // 회원 조회, 없으면 404
+    @GetMapping("members/{memberId}")
+    @ResponseBody
+    public ResponseEntity<Member> findMember(@PathVariable long memberId) {
+        Member member = memberService.findMember(memberId);
+        return member == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(member);
+    }
+
+    // 대량 회원 가입 (NDJSON)
+    // 요청 본문을 한 줄씩 읽어서 BATCH_SIZE 명씩 joinAll 로 저장하고, 저장한 회원을 한 줄씩 바로 응답한다.
+    // id 가 없는 회원은 저장하지 않고 {"error":"id is required","name":..} 줄로 알려준다.
+    @PostMapping(value = "members/bulk", consumes = NdjsonWriter.MEDIA_TYPE, produces = NdjsonWriter.MEDIA_TYPE)
+    public void joinAll(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.MEDIA_TYPE);
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream());
+        List<Member> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (MappingIterator<MemberRequest> requests = objectMapper.readerFor(MemberRequest.class).readValues(request.getInputStream())) {
+            while (requests.hasNextValue()) {
+                MemberRequest member = requests.nextValue();
+                if (member.getId() == null) {
+                    writer.write(idRequired(member));
+                    continue;
+                }
+                batch.add(member.toMember());
+                if (batch.size() == BATCH_SIZE) {
+                    joinAll(batch, writer);
+                }
+            }
+        }
+        joinAll(batch, writer);
+    }
+
+    private void joinAll(List<Member> batch, NdjsonWriter writer) throws IOException {
+        if (batch.isEmpty()) {
+            writer.flush();
+            return;
+        }
+        memberService.joinAll(batch);
+        for (Member member : batch) {
+            writer.write(member);
+        }
+        writer.flush();
+        batch.clear();
+    }
+
+    private static Map<String, Object> idRequired(MemberRequest request) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("error", "id is required");
+        error.put("name", request.getName());
+        return Collections.unmodifiableMap(error);
+    }
+}
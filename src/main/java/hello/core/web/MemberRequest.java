@@ -0,0 +1,41 @@
+package hello.core.web;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+// 회원 가입 요청 본문 (JSON)
+// ex) {"id":1,"name":"memberA","grade":"VIP"}
+public class MemberRequest {
+
+    private Long id;
+    private String name;
+    private Grade grade;
+
+    public Member toMember() {
+        return new Member(id, name, grade);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Grade getGrade() {
+        return grade;
+    }
+
+    public void setGrade(Grade grade) {
+        this.grade = grade;
+    }
+}
@@ -0,0 +1,44 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+class NdjsonWriter {
+
+    // NDJSON(줄마다 JSON 하나) 응답을 한 줄씩 바로 쓰는 도구
+    // 결과 전체를 List 로 모았다가 한 번에 직렬화하지 않는다.
+    // 값마다 flush 하지 않고 생성기 버퍼에 모아두었다가 flush() 를 호출할 때(배치마다) 내보낸다.
+
+    static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private final ObjectWriter objectWriter;
+    private final JsonGenerator generator;
+
+    NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        // 응답 스트림은 서블릿 컨테이너가 닫는다.
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 값 사이에 기본으로 들어가는 공백 대신 줄바꿈을 직접 쓴다.
+        generator.setRootValueSeparator(null);
+    }
+
+    void write(Object value) {
+        try {
+            objectWriter.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void flush() throws IOException {
+        generator.flush();
+    }
+}
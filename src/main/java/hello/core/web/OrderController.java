@@ -0,0 +1,158 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import hello.core.order.Order;
+import hello.core.order.OrderService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Controller
+public class OrderController {
+
+    // 한 번에 계산하는 주문 수 (createOrders)
+    private static final int BATCH_SIZE = 1024;
+
+    private final OrderService orderService;
+    private final MemberService memberService;
+    private final AsyncWorkExecutor asyncWorkExecutor;
+    private final ObjectMapper objectMapper;
+
+    // ObjectMapper 는 MemberController 와 같은 이유로 ObjectProvider 로 받는다.
+    public OrderController(OrderService orderService, MemberService memberService,
+                           AsyncWorkExecutor asyncWorkExecutor, ObjectProvider<ObjectMapper> objectMapper) {
+        this.orderService = orderService;
+        this.memberService = memberService;
+        this.asyncWorkExecutor = asyncWorkExecutor;
+        this.objectMapper = objectMapper.getIfAvailable(ObjectMapper::new);
+    }
+
+    // 주문 생성, 없는 회원이면 404
+    @PostMapping("orders")
+    @ResponseBody
+    public ResponseEntity<Order> createOrder(@RequestBody OrderRequest request) {
+        if (request.getMemberId() == null || memberService.findMember(request.getMemberId().longValue()) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(orderService.createOrder(request.getMemberId(), request.getItemName(), request.getItemPrice()));
+    }
+
+    // 주문 생성 (비동기), 요청과 응답은 createOrder 와 같다. 없는 회원이면 404
+    // 회원 조회, 할인 계산이 느려져도 요청 스레드는 기다리지 않는다. (회원 조회도 작업 스레드에서 한다)
+    @PostMapping("orders-async")
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<Order>> createOrderAsync(@RequestBody OrderRequest request) {
+        return asyncWorkExecutor.supplyAsync(() -> createOrder(request));
+    }
+
+    // 대량 주문 생성 (NDJSON)
+    // 요청 본문을 한 줄씩 읽어서 BATCH_SIZE 건씩 createOrders 로 계산하고, 만들어진 주문을 한 줄씩 바로 응답한다.
+    // 요청 전체나 결과 전체를 메모리에 모으지 않으므로 주문 수와 상관없이 메모리 사용량이 일정하다.
+    // 주문마다 HTTP 요청을 보내는 것보다 연결, 헤더 처리, 서비스 호출 비용을 배치 단위로 나눠 낸다.
+    // 없는 회원의 주문은 그 배치의 결과 앞에 {"error":"member not found","memberId":..} 줄로 알려준다.
+    @PostMapping(value = "orders/bulk", consumes = NdjsonWriter.MEDIA_TYPE, produces = NdjsonWriter.MEDIA_TYPE)
+    public void createOrders(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NdjsonWriter.MEDIA_TYPE);
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream());
+        Batch batch = new Batch();
+
+        try (MappingIterator<OrderRequest> requests = objectMapper.readerFor(OrderRequest.class).readValues(request.getInputStream())) {
+            while (requests.hasNextValue()) {
+                OrderRequest order = requests.nextValue();
+                if (order.getMemberId() == null) {
+                    writer.write(memberNotFound(null));
+                    continue;
+                }
+                batch.add(order);
+                if (batch.size == BATCH_SIZE) {
+                    createOrders(batch, writer);
+                }
+            }
+        }
+        createOrders(batch, writer);
+    }
+
+    private void createOrders(Batch batch, NdjsonWriter writer) throws IOException {
+        if (batch.size == 0) {
+            writer.flush();
+            return;
+        }
+        batch.removeUnknownMembers(memberService, writer);
+        orderService.createOrders(batch.memberIds(), batch.itemNames(), batch.itemPrices(), writer::write);
+        writer.flush();
+        batch.clear();
+    }
+
+    private static Map<String, Object> memberNotFound(Long memberId) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("error", "member not found");
+        error.put("memberId", memberId);
+        return Collections.unmodifiableMap(error);
+    }
+
+    // 배치 하나를 createOrders 에 넘길 배열로 모아둔다. 배열은 배치마다 재사용한다.
+    private static class Batch {
+
+        final long[] memberIds = new long[BATCH_SIZE];
+        final String[] itemNames = new String[BATCH_SIZE];
+        final int[] itemPrices = new int[BATCH_SIZE];
+        int size;
+
+        void add(OrderRequest request) {
+            memberIds[size] = request.getMemberId();
+            itemNames[size] = request.getItemName();
+            itemPrices[size] = request.getItemPrice();
+            size++;
+        }
+
+        // 회원을 한 번에 조회해서 없는 회원의 주문은 에러 줄을 쓰고 배치에서 뺀다.
+        void removeUnknownMembers(MemberService memberService, NdjsonWriter writer) {
+            long[] ids = size == BATCH_SIZE ? memberIds : Arrays.copyOf(memberIds, size);
+            Member[] members = memberService.findMembers(ids);
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (members[i] == null) {
+                    writer.write(memberNotFound(memberIds[i]));
+                    continue;
+                }
+                memberIds[kept] = memberIds[i];
+                itemNames[kept] = itemNames[i];
+                itemPrices[kept] = itemPrices[i];
+                kept++;
+            }
+            size = kept;
+        }
+
+        long[] memberIds() {
+            return size == BATCH_SIZE ? memberIds : Arrays.copyOf(memberIds, size);
+        }
+
+        String[] itemNames() {
+            return size == BATCH_SIZE ? itemNames : Arrays.copyOf(itemNames, size);
+        }
+
+        int[] itemPrices() {
+            return size == BATCH_SIZE ? itemPrices : Arrays.copyOf(itemPrices, size);
+        }
+
+        void clear() {
+            Arrays.fill(itemNames, null);
+            size = 0;
+        }
+    }
+}
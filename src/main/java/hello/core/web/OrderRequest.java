@@ -0,0 +1,34 @@
+package hello.core.web;
+
+// 주문 요청 본문 (JSON)
+// ex) {"memberId":1,"itemName":"itemA","itemPrice":10000}
+public class OrderRequest {
+
+    private Long memberId;
+    private String itemName;
+    private int itemPrice;
+
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public int getItemPrice() {
+        return itemPrice;
+    }
+
+    public void setItemPrice(int itemPrice) {
+        this.itemPrice = itemPrice;
+    }
+}
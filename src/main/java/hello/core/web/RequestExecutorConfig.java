@@ -0,0 +1,68 @@
+package hello.core.web;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+public class RequestExecutorConfig {
+
+    // web.virtual-threads.enabled=true 이고 JDK 가 가상 스레드를 지원하면 톰캣이 요청마다 가상 스레드를 사용하게 한다. (application.properties)
+    // 그 밖의 경우에는 커스터마이저를 등록하지 않고 톰캣 기본 스레드 풀(server.tomcat.threads.max, accept-count 등)을 그대로 둔다.
+    // MyLogger 의 요청 정보는 스레드마다 있으므로, 요청 하나가 스레드 하나에서 처리되는 한 그대로 동작한다.
+
+    // ExecutorService 를 빈으로 등록하면 스프링 부트의 기본 작업 실행기(applicationTaskExecutor)가 빠지므로,
+    // 빈으로 등록하지 않고 이 커스터마이저가 들고 있다가 컨테이너가 내려갈 때 종료한다.
+    @Bean
+    @Conditional(VirtualThreadsEnabled.class)
+    public RequestExecutorCustomizer requestExecutorCustomizer() {
+        return new RequestExecutorCustomizer(RequestExecutors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // 설정을 켰어도 JDK 가 지원하지 않으면 등록하지 않는다.
+    static class VirtualThreadsEnabled implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            boolean enabled = context.getEnvironment().getProperty("web.virtual-threads.enabled", Boolean.class, false);
+            if (enabled && !RequestExecutors.isVirtualThreadSupported()) {
+                System.out.println("web.virtual-threads.enabled=true but virtual threads are not supported on Java "
+                        + Runtime.version() + ", using the default Tomcat thread pool");
+            }
+            return enabled && RequestExecutors.isVirtualThreadSupported();
+        }
+    }
+
+    public static class RequestExecutorCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory>, DisposableBean {
+
+        private final ExecutorService executor;
+
+        public RequestExecutorCustomizer(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void customize(TomcatServletWebServerFactory factory) {
+            System.out.println("request executor = " + executor.getClass().getSimpleName());
+            factory.addProtocolHandlerCustomizers(protocolHandler -> protocolHandler.setExecutor(executor));
+        }
+
+        public ExecutorService getExecutor() {
+            return executor;
+        }
+
+        // 톰캣은 밖에서 넣어준 Executor 를 종료하지 않는다.
+        @Override
+        public void destroy() {
+            executor.shutdown();
+        }
+    }
+}
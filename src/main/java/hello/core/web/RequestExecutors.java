@@ -0,0 +1,118 @@
+package hello.core.web;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class RequestExecutors {
+
+    // 서블릿 요청을 실행할 Executor 를 만든다.
+    // 가상 스레드(JDK 21+)를 쓸 수 있으면 요청마다 가상 스레드를 하나씩 만든다.
+    // 가상 스레드는 블로킹 I/O 중에는 캐리어(플랫폼) 스레드를 놓아주므로, 동시 처리 수가 스레드 풀 크기에 묶이지 않는다.
+    // 빌드 대상은 Java 11 이라 Executors.newVirtualThreadPerTaskExecutor 를 직접 호출할 수 없어서 MethodHandle 로 찾는다.
+    // 없으면(JDK 20 이하) 크기가 정해진 플랫폼 스레드 풀을 사용한다.
+    // JDK 19, 20 에도 메서드는 있지만 preview 기능이라 --enable-preview 없이 호출하면 UnsupportedOperationException 이 난다.
+    // 그래서 메서드가 있는지만 보지 않고, JDK 21 이상인지 확인한 뒤 한 번 만들어서 닫아보고 성공할 때만 사용한다.
+    // 플랫폼 스레드 풀의 대기열은 크기가 정해져 있고, 가득 차면 RejectedExecutionException 으로 거절한다.
+    // 대기열이 끝없이 자라면 처리하지 못할 작업이 메모리에 쌓이고 지연 시간만 늘어난다.
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    static final int VIRTUAL_THREAD_MIN_FEATURE = 21;
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor(Runtime.version().feature());
+
+    private RequestExecutors() {
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    // @param virtualThreads 가상 스레드를 사용할지 여부, 지원하지 않는 JDK 면 무시하고 플랫폼 스레드 풀을 만든다.
+    // @param poolSize 플랫폼 스레드 풀 크기
+    public static ExecutorService create(boolean virtualThreads, int poolSize) {
+        return create(virtualThreads, poolSize, "http-request");
+    }
+
+    // @param threadName 플랫폼 스레드 이름 앞부분, 뒤에 -1, -2 ... 가 붙는다.
+    public static ExecutorService create(boolean virtualThreads, int poolSize, String threadName) {
+        return create(virtualThreads, poolSize, DEFAULT_QUEUE_CAPACITY, threadName);
+    }
+
+    // @param queueCapacity 플랫폼 스레드 풀에서 실행을 기다릴 수 있는 작업 수, 넘으면 RejectedExecutionException
+    public static ExecutorService create(boolean virtualThreads, int poolSize, int queueCapacity, String threadName) {
+        return create(NEW_VIRTUAL_THREAD_EXECUTOR, virtualThreads, poolSize, queueCapacity, threadName);
+    }
+
+    // @param virtualThreadExecutor findVirtualThreadExecutor 의 결과, null 이면 지원하지 않는 JDK
+    static ExecutorService create(MethodHandle virtualThreadExecutor, boolean virtualThreads, int poolSize, int queueCapacity,
+                                  String threadName) {
+        if (virtualThreads && virtualThreadExecutor != null) {
+            return invoke(virtualThreadExecutor);
+        }
+        return newPlatformPool(poolSize, queueCapacity, threadName);
+    }
+
+    // 지원하지 않는 JDK 에서 호출하면 IllegalStateException
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            throw new IllegalStateException("virtual threads are not supported on Java " + Runtime.version());
+        }
+        return invoke(NEW_VIRTUAL_THREAD_EXECUTOR);
+    }
+
+    private static ExecutorService invoke(MethodHandle virtualThreadExecutor) {
+        try {
+            return (ExecutorService) virtualThreadExecutor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("cannot create virtual thread executor", e);
+        }
+    }
+
+    static ExecutorService newPlatformPool(int poolSize, int queueCapacity, String threadName) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("poolSize must be positive: " + poolSize);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, threadName + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // @param featureVersion 실행 중인 JDK 의 기능 버전 (Runtime.version().feature())
+    // @return 가상 스레드를 쓸 수 없으면 null
+    static MethodHandle findVirtualThreadExecutor(int featureVersion) {
+        if (featureVersion < VIRTUAL_THREAD_MIN_FEATURE) {
+            return null;
+        }
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().findStatic(java.util.concurrent.Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+        // 시작할 때 한 번 만들어보고, 실패하면 플랫폼 스레드 풀을 사용한다.
+        try {
+            invoke(handle).shutdown();
+            return handle;
+        } catch (UnsupportedOperationException | IllegalStateException e) {
+            return null;
+        }
+    }
+}
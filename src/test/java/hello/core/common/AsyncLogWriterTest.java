@@ -0,0 +1,131 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncLogWriterTest {
+
+    Path file;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        file = Files.createTempFile("async-log", ".log");
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 남긴 로그가 빠짐없이 한 줄씩 기록된다")
+    void concurrentLog() throws Exception {
+        AsyncLogWriter logWriter = new AsyncLogWriter(file, 1024, AsyncLogWriter.OverflowPolicy.BLOCK);
+        logWriter.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String uuid = "uuid-" + t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    logWriter.log(uuid, "http://localhost:8080/log-demo", "message " + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        logWriter.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(40_000);
+        assertThat(new HashSet<>(lines).size()).isEqualTo(40_000);
+        assertThat(lines.get(0)).startsWith("[uuid-");
+        assertThat(logWriter.getWriteCount()).isEqualTo(40_000L);
+        assertThat(logWriter.getDropCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("DROP 정책은 버퍼가 가득 차면 기다리지 않고 버린다")
+    void dropWhenFull() throws Exception {
+        // 소비자 스레드를 시작하지 않아서 버퍼가 비워지지 않는다.
+        AsyncLogWriter logWriter = new AsyncLogWriter(file, 4, AsyncLogWriter.OverflowPolicy.DROP);
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (logWriter.log("uuid", null, "message " + i)) {
+                accepted++;
+            }
+        }
+        logWriter.close();
+
+        assertThat(accepted).isEqualTo(4);
+        assertThat(logWriter.getDropCount()).isEqualTo(6L);
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8))
+                .containsExactly("[uuid] message 0", "[uuid] message 1", "[uuid] message 2", "[uuid] message 3");
+    }
+
+    @Test
+    @DisplayName("BLOCK 정책이어도 비워줄 소비자 스레드가 없거나 닫힌 뒤에는 기다리지 않고 버린다")
+    void blockWithoutConsumer() throws Exception {
+        // 소비자 스레드를 시작하지 않아서 버퍼가 비워지지 않는다.
+        AsyncLogWriter logWriter = new AsyncLogWriter(file, 2, AsyncLogWriter.OverflowPolicy.BLOCK);
+
+        assertThat(logWriter.log("uuid", null, "message 0")).isTrue();
+        assertThat(logWriter.log("uuid", null, "message 1")).isTrue();
+        assertThat(logWriter.log("uuid", null, "message 2")).isFalse();
+        logWriter.close();
+        assertThat(logWriter.log("uuid", null, "message 3")).isFalse();
+
+        assertThat(logWriter.getDropCount()).isEqualTo(2L);
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8))
+                .containsExactly("[uuid] message 0", "[uuid] message 1");
+    }
+
+    @Test
+    @DisplayName("버퍼가 가득 차서 기다리던 BLOCK 생산자는 소비자가 칸을 비우면 이어서 기록한다")
+    void blockUntilDrained() throws Exception {
+        AsyncLogWriter logWriter = new AsyncLogWriter(file, 2, AsyncLogWriter.OverflowPolicy.BLOCK);
+        logWriter.start();
+
+        for (int i = 0; i < 1000; i++) {
+            logWriter.log("uuid", null, "message " + i);
+            if (i % 100 == 0) {
+                // 소비자가 잠들었다가 생산자의 unpark 로 깨어나는 경로도 지나간다.
+                Thread.sleep(5);
+            }
+        }
+        logWriter.close();
+
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).hasSize(1000);
+        assertThat(logWriter.getDropCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("한글과 이모지도 UTF-8 로 기록된다")
+    void utf8() throws Exception {
+        AsyncLogWriter logWriter = new AsyncLogWriter(file, 16, AsyncLogWriter.OverflowPolicy.BLOCK);
+        logWriter.start();
+
+        logWriter.log("uuid", "http://localhost/로그", "서비스 id = testId 😀");
+        logWriter.close();
+
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8))
+                .containsExactly("[uuid][http://localhost/로그] 서비스 id = testId 😀");
+    }
+}
@@ -0,0 +1,108 @@
+package hello.core.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MyLoggerTest {
+
+    Path file;
+    AsyncLogWriter logWriter;
+    MyLogger myLogger;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        file = Files.createTempFile("my-logger", ".log");
+        logWriter = new AsyncLogWriter(file, 64, AsyncLogWriter.OverflowPolicy.BLOCK);
+        myLogger = new MyLogger(logWriter);
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        logWriter.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("요청 안에서 남긴 로그에는 같은 uuid 와 URL 이 붙는다")
+    void requestContext() throws Exception {
+        //given
+        myLogger.begin("http://localhost:8080/log-demo");
+        String uuid = myLogger.getUuid();
+        //when
+        myLogger.log("controller test");
+        myLogger.end();
+        myLogger.log("after request");
+        logWriter.close();
+        //then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(1)).isEqualTo("[" + uuid + "][http://localhost:8080/log-demo] controller test");
+        assertThat(lines.get(2)).startsWith("[" + uuid + "] request scope bean close");
+        assertThat(lines.get(3)).isEqualTo("[-] after request");
+        assertThat(myLogger.getUuid()).isNull();
+    }
+
+    @Test
+    @DisplayName("요청 정보는 스레드마다 따로 있다")
+    void perThread() throws Exception {
+        myLogger.begin("http://localhost/a");
+        AtomicReference<String> other = new AtomicReference<>();
+
+        Thread thread = new Thread(() -> {
+            myLogger.begin("http://localhost/b");
+            other.set(myLogger.getRequestURL());
+            myLogger.end();
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(other.get()).isEqualTo("http://localhost/b");
+        assertThat(myLogger.getRequestURL()).isEqualTo("http://localhost/a");
+        myLogger.end();
+    }
+
+    @Test
+    @DisplayName("요청 id 는 UUID 버전 4 형식이고 겹치지 않는다")
+    void requestId() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            String id = RequestIdGenerator.next();
+            UUID uuid = UUID.fromString(id);
+            assertThat(uuid.version()).isEqualTo(4);
+            assertThat(uuid.variant()).isEqualTo(2);
+            ids.add(id);
+        }
+        assertThat(ids.size()).isEqualTo(100_000);
+    }
+
+    @Test
+    @DisplayName("wrap 으로 넘긴 작업은 다른 스레드에서도 같은 요청 정보로 로그를 남긴다")
+    void wrap() throws Exception {
+        myLogger.begin("http://localhost/log-demo-async");
+        String uuid = myLogger.getUuid();
+        Runnable task = myLogger.wrap(() -> myLogger.log("service id = testId"));
+        myLogger.detach();
+        assertThat(myLogger.getUuid()).isNull();
+
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+        logWriter.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines.get(1)).isEqualTo("[" + uuid + "][http://localhost/log-demo-async] service id = testId");
+    }
+}
@@ -0,0 +1,233 @@
+package hello.core.common;
+
+import hello.core.AppContexts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelInitBeanFactoryTest {
+
+    @Test
+    @DisplayName("서로 관계없는 빈의 초기화는 동시에 실행된다.")
+    void independentBeansInitializeInParallel() {
+        //given
+        ParallelInitBeanFactory beanFactory = new ParallelInitBeanFactory(4);
+
+        //when
+        AnnotationConfigApplicationContext ac = create(beanFactory);
+
+        //then
+        BeanInitTimeline timeline = beanFactory.getTimeline();
+        timeline.print(System.out);
+        for (String name : new String[]{"clientA", "clientB", "clientC", "clientD"}) {
+            assertThat(ac.getBean(name, SlowClient.class).initialized).isTrue();
+            assertThat(timeline.getEntry(name).getInitThread()).startsWith("bean-init-");
+        }
+        // 200ms 짜리 초기화 4 개를 차례로 하면 800ms 이상 걸린다.
+        assertThat(timeline.getTotalInitNanos()).isGreaterThanOrEqualTo(800_000_000L);
+        assertThat(timeline.getReadyAt()).isLessThan(timeline.getTotalInitNanos() / 2);
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("의존하는 빈의 초기화가 끝난 뒤에 초기화된다.")
+    void dependencyInitializedFirst() {
+        //given
+        ParallelInitBeanFactory beanFactory = new ParallelInitBeanFactory(4);
+
+        //when
+        AnnotationConfigApplicationContext ac = create(beanFactory);
+
+        //then
+        DependentClient dependent = ac.getBean(DependentClient.class);
+        assertThat(dependent.dependencyInitializedFirst).isTrue();
+        BeanInitTimeline timeline = beanFactory.getTimeline();
+        assertThat(timeline.getEntry("dependent").getInitStart())
+                .isGreaterThanOrEqualTo(timeline.getEntry("clientA").getInitEnd());
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("컴파일할 때 만든 AppConfig__BeanRegistrar 로 등록해도 의존하는 빈의 초기화가 끝난 뒤에 초기화된다.")
+    void proxyFreeAppConfig() {
+        //given
+        ParallelInitBeanFactory beanFactory = new ParallelInitBeanFactory(4);
+
+        //when
+        GenericApplicationContext ac = AppContexts.proxyFreeAppConfig(beanFactory);
+
+        //then
+        // CGLIB 프록시가 없어도 만들어진 코드가 의존 관계를 기록한다.
+        assertThat(beanFactory.getDependenciesForBean("orderService")).contains("memberRepository", "discountPolicy");
+        assertThat(beanFactory.getDependenciesForBean("memberService")).contains("memberRepository");
+        BeanInitTimeline timeline = beanFactory.getTimeline();
+        for (String dependency : new String[]{"memberRepository", "discountPolicy"}) {
+            assertThat(timeline.getEntry("orderService").getInitStart())
+                    .isGreaterThanOrEqualTo(timeline.getEntry(dependency).getInitEnd());
+        }
+        assertThat(timeline.getEntry("memberService").getInitStart())
+                .isGreaterThanOrEqualTo(timeline.getEntry("memberRepository").getInitEnd());
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("@Lazy 빈은 처음 조회할 때 만들고 바로 초기화한다.")
+    void lazyBeanCreatedOnFirstUse() {
+        //given
+        ParallelInitBeanFactory beanFactory = new ParallelInitBeanFactory(4);
+        AnnotationConfigApplicationContext ac = create(beanFactory);
+        assertThat(beanFactory.getTimeline().getEntry("lazyClient")).isNull();
+
+        //when
+        SlowClient lazyClient = ac.getBean("lazyClient", SlowClient.class);
+
+        //then
+        assertThat(lazyClient.initialized).isTrue();
+        assertThat(beanFactory.getTimeline().getEntry("lazyClient").getInitThread()).isNull();
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("후처리기는 @PostConstruct 가 실행되기 전의 빈을 받는다. (기본 컨테이너와 다른 순서)")
+    void postProcessorOrder() {
+        //given
+        ParallelInitBeanFactory beanFactory = new ParallelInitBeanFactory(4);
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(beanFactory);
+        ac.register(SlowConfig.class, RecordingConfig.class);
+
+        //when
+        ac.refresh();
+
+        //then
+        InitStateRecorder recorder = ac.getBean(InitStateRecorder.class);
+        assertThat(recorder.initializedBefore.get("clientA")).isFalse();
+        assertThat(recorder.initializedAfter.get("clientA")).isFalse();
+        assertThat(ac.getBean("clientA", SlowClient.class).initialized).isTrue();
+        ac.close();
+
+        // 기본 컨테이너는 @PostConstruct 가 끝난 뒤에 나머지 후처리기를 실행한다.
+        AnnotationConfigApplicationContext defaultAc = new AnnotationConfigApplicationContext(SlowConfig.class, RecordingConfig.class);
+        InitStateRecorder defaultRecorder = defaultAc.getBean(InitStateRecorder.class);
+        assertThat(defaultRecorder.initializedBefore.get("clientA")).isTrue();
+        assertThat(defaultRecorder.initializedAfter.get("clientA")).isTrue();
+        defaultAc.close();
+    }
+
+    private AnnotationConfigApplicationContext create(ParallelInitBeanFactory beanFactory) {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(beanFactory);
+        ac.register(SlowConfig.class);
+        ac.refresh();
+        return ac;
+    }
+
+    @Configuration
+    static class SlowConfig {
+
+        @Bean
+        public SlowClient clientA() {
+            return new SlowClient(200);
+        }
+
+        @Bean
+        public SlowClient clientB() {
+            return new SlowClient(200);
+        }
+
+        @Bean
+        public SlowClient clientC() {
+            return new SlowClient(200);
+        }
+
+        @Bean
+        public SlowClient clientD() {
+            return new SlowClient(200);
+        }
+
+        @Bean
+        public DependentClient dependent() {
+            return new DependentClient(clientA());
+        }
+
+        @Bean
+        @Lazy
+        public SlowClient lazyClient() {
+            return new SlowClient(10);
+        }
+    }
+
+    @Configuration
+    static class RecordingConfig {
+
+        // 후처리기는 다른 빈보다 먼저 만들어져야 하므로 static 으로 등록한다.
+        @Bean
+        public static InitStateRecorder initStateRecorder() {
+            return new InitStateRecorder();
+        }
+    }
+
+    // 후처리기가 받은 SlowClient 가 그 시점에 초기화(@PostConstruct)되어 있었는지 기록한다.
+    static class InitStateRecorder implements BeanPostProcessor {
+
+        final Map<String, Boolean> initializedBefore = new ConcurrentHashMap<>();
+        final Map<String, Boolean> initializedAfter = new ConcurrentHashMap<>();
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof SlowClient) {
+                initializedBefore.put(beanName, ((SlowClient) bean).initialized);
+            }
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof SlowClient) {
+                initializedAfter.put(beanName, ((SlowClient) bean).initialized);
+            }
+            return bean;
+        }
+    }
+
+    // NetworkClient.init 처럼 초기화할 때 외부 연결 같은 느린 작업을 한다.
+    static class SlowClient {
+
+        private final long millis;
+        volatile boolean initialized;
+
+        SlowClient(long millis) {
+            this.millis = millis;
+        }
+
+        @PostConstruct
+        public void init() throws InterruptedException {
+            Thread.sleep(millis);
+            initialized = true;
+        }
+    }
+
+    static class DependentClient {
+
+        private final SlowClient client;
+        volatile boolean dependencyInitializedFirst;
+
+        DependentClient(SlowClient client) {
+            this.client = client;
+        }
+
+        @PostConstruct
+        public void init() {
+            dependencyInitializedFirst = client.initialized;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberA", Grade.VIP);
+    Member basic = new Member(2L, "memberB", Grade.BASIC);
+
+    @Test
+    @DisplayName("같은 등급, 같은 가격은 두 번째부터 캐시에서 꺼낸다")
+    void hitAndMiss() {
+        CachingDiscountPolicy discountPolicy = new CachingDiscountPolicy(new RateDiscountPolicy(), 64, CachingDiscountPolicy.Eviction.CLOCK);
+
+        assertThat(discountPolicy.discount(vip, 10000)).isEqualTo(1000);
+        assertThat(discountPolicy.discount(vip, 10000)).isEqualTo(1000);
+        assertThat(discountPolicy.discount(basic, 10000)).isEqualTo(0);
+        assertThat(discountPolicy.discount(vip, 20000)).isEqualTo(2000);
+
+        assertThat(discountPolicy.getHitCount()).isEqualTo(1L);
+        assertThat(discountPolicy.getMissCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("캐시 크기를 넘어도 항상 감싼 정책과 같은 결과를 낸다")
+    void boundedAndCorrect() {
+        for (CachingDiscountPolicy.Eviction eviction : CachingDiscountPolicy.Eviction.values()) {
+            RateDiscountPolicy rateDiscountPolicy = new RateDiscountPolicy();
+            CachingDiscountPolicy discountPolicy = new CachingDiscountPolicy(rateDiscountPolicy, 64, eviction);
+            Random random = new Random(eviction.ordinal());
+
+            for (int i = 0; i < 100_000; i++) {
+                // 대부분은 인기 가격 10 개, 가끔 한 번만 쓰이는 가격
+                int price = random.nextInt(10) < 8 ? 1000 * (1 + random.nextInt(10)) : random.nextInt(1_000_000);
+                Member member = random.nextBoolean() ? vip : basic;
+                assertThat(discountPolicy.discount(member, price)).isEqualTo(rateDiscountPolicy.discount(member, price));
+            }
+
+            assertThat(discountPolicy.getCapacity()).isEqualTo(64);
+            assertThat(discountPolicy.getEvictionCount()).isGreaterThan(0);
+            assertThat(discountPolicy.getHitCount()).isGreaterThan(discountPolicy.getMissCount());
+        }
+    }
+
+    @Test
+    @DisplayName("TINY_LFU 는 한 번만 쓰인 가격이 인기 가격을 밀어내지 않는다")
+    void tinyLfuKeepsHotPrices() {
+        CachingDiscountPolicy clock = new CachingDiscountPolicy(new RateDiscountPolicy(), 64, CachingDiscountPolicy.Eviction.CLOCK);
+        CachingDiscountPolicy tinyLfu = new CachingDiscountPolicy(new RateDiscountPolicy(), 64, CachingDiscountPolicy.Eviction.TINY_LFU);
+
+        int oneHit = 1_000_000;
+        for (int round = 0; round < 1000; round++) {
+            for (int hot = 0; hot < 32; hot++) {
+                clock.discount(vip, 1000 * (hot + 1));
+                tinyLfu.discount(vip, 1000 * (hot + 1));
+            }
+            for (int i = 0; i < 64; i++) {
+                clock.discount(vip, oneHit);
+                tinyLfu.discount(vip, oneHit);
+                oneHit++;
+            }
+        }
+
+        assertThat(tinyLfu.getHitCount()).isGreaterThan(clock.getHitCount());
+    }
+
+    @Test
+    @DisplayName("감싼 정책이 바뀌면 캐시가 비워지고 새 정책으로 계산한다")
+    void invalidateOnUpdate() {
+        ReloadableDiscountPolicy reloadable = new ReloadableDiscountPolicy(new RateDiscountPolicy());
+        CachingDiscountPolicy discountPolicy = new CachingDiscountPolicy(reloadable, 64, CachingDiscountPolicy.Eviction.CLOCK);
+        assertThat(discountPolicy.discount(vip, 10000)).isEqualTo(1000);
+        assertThat(discountPolicy.discount(vip, 10000)).isEqualTo(1000);
+
+        reloadable.update(new FixDiscountPolicy(500));
+
+        assertThat(discountPolicy.discount(vip, 10000)).isEqualTo(500);
+        assertThat(discountPolicy.getVersion()).isEqualTo(2L);
+        assertThat(discountPolicy.getInvalidationCount()).isEqualTo(1L);
+        assertThat(discountPolicy.getHitCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 조회하고 채워도 틀린 값을 돌려주지 않는다")
+    void concurrentAccess() throws Exception {
+        RateDiscountPolicy rateDiscountPolicy = new RateDiscountPolicy();
+        CachingDiscountPolicy discountPolicy = new CachingDiscountPolicy(rateDiscountPolicy, 32, CachingDiscountPolicy.Eviction.CLOCK);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    int price = random.nextInt(200) * 100;
+                    int discount = discountPolicy.discount(vip, price);
+                    if (discount != price / 10) {
+                        failure.set("price=" + price + ", discount=" + discount);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failure.get()).isNull();
+    }
+
+    @Test
+    void invalidCapacity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingDiscountPolicy(new RateDiscountPolicy(), 0, CachingDiscountPolicy.Eviction.CLOCK));
+    }
+}
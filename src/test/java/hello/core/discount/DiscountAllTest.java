@@ -0,0 +1,62 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiscountAllTest {
+
+    // 등급 없음(-1), BASIC, VIP
+    byte[] gradeOrdinals = {-1, (byte) Grade.BASIC.ordinal(), (byte) Grade.VIP.ordinal(), -1, (byte) Grade.VIP.ordinal()};
+    int[] prices = {10000, 10000, 10000, 200000, 200000};
+
+    @Test
+    @DisplayName("모든 정책의 discountAll 은 음수 등급을 등급 없는 회원으로 보고 discount 와 같은 결과를 낸다")
+    void negativeGradeOrdinalMeansNoGrade() {
+        RuleDiscountPolicy rules = RuleDiscountPolicy.parse(Arrays.asList(
+                "grade=VIP percent=10",
+                "grade=* min=100000 amount=500 stack"));
+        List<DiscountPolicy> policies = Arrays.asList(
+                new FixDiscountPolicy(),
+                new RateDiscountPolicy(),
+                rules,
+                new CompositeDiscountPolicy(CompositeDiscountPolicy.Mode.SUM, Arrays.asList(new FixDiscountPolicy(), rules)),
+                new ReloadableDiscountPolicy(rules),
+                new CachingDiscountPolicy(rules, 16, CachingDiscountPolicy.Eviction.CLOCK),
+                // discountAll 을 재정의하지 않은 정책 (기본 구현)
+                (member, price) -> member.getGrade() == null ? 1 : 0);
+
+        for (DiscountPolicy policy : policies) {
+            //when
+            int[] out = new int[prices.length];
+            policy.discountAll(gradeOrdinals, prices, out);
+
+            //then
+            for (int i = 0; i < prices.length; i++) {
+                Grade grade = gradeOrdinals[i] < 0 ? null : Grade.values()[gradeOrdinals[i]];
+                assertThat(out[i]).isEqualTo(policy.discount(new Member((long) i, "member", grade), prices[i]));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("등급이 없는 회원은 VIP 할인을 받지 않고, 등급과 상관없는 규칙만 적용된다")
+    void noGradeDiscount() {
+        RuleDiscountPolicy rules = RuleDiscountPolicy.parse(Arrays.asList(
+                "grade=VIP percent=10",
+                "grade=* min=100000 amount=500 stack"));
+        int[] out = new int[prices.length];
+
+        new RateDiscountPolicy().discountAll(gradeOrdinals, prices, out);
+        assertThat(out).containsExactly(0, 0, 1000, 0, 20000);
+
+        rules.discountAll(gradeOrdinals, prices, out);
+        assertThat(out).containsExactly(0, 0, 1000, 500, 20500);
+    }
+}
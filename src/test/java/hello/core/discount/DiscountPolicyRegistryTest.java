@@ -0,0 +1,92 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DiscountPolicyRegistryTest {
+
+    Member vip = new Member(1L, "memberA", Grade.VIP);
+    DiscountPolicyRegistry registry;
+
+    @BeforeEach
+    void beforeEach() {
+        Map<String, DiscountPolicy> policies = new LinkedHashMap<>();
+        policies.put("fixDiscountPolicy", new FixDiscountPolicy());
+        policies.put("rateDiscountPolicy", new RateDiscountPolicy());
+        registry = new DiscountPolicyRegistry(policies);
+    }
+
+    @Test
+    @DisplayName("이름을 번호로 바꿔두고 번호로 할인 정책을 고른다")
+    void dispatchByHandle() {
+        int fix = registry.handle("fixDiscountPolicy");
+        int rate = registry.handle("rateDiscountPolicy");
+
+        assertThat(registry.discount(fix, vip, 20000)).isEqualTo(1000);
+        assertThat(registry.discount(rate, vip, 20000)).isEqualTo(2000);
+        assertThat(registry.discount(rate, vip, 30000)).isEqualTo(3000);
+        assertThat(registry.name(rate)).isEqualTo("rateDiscountPolicy");
+        assertThat(registry.getInvocationCount(fix)).isEqualTo(1L);
+        assertThat(registry.getInvocationCount(rate)).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("없는 이름이나 null 은 IllegalArgumentException")
+    void unknownName() {
+        assertThrows(IllegalArgumentException.class, () -> registry.handle(null));
+        assertThrows(IllegalArgumentException.class, () -> registry.handle("noDiscountPolicy"));
+        assertThrows(IllegalArgumentException.class, () -> registry.discount((String) null, vip, 10000));
+    }
+
+    @Test
+    @DisplayName("등록된 정책을 묶어서 중복 할인 또는 최대 할인 정책을 만든다")
+    void composite() {
+        int sum = registry.registerComposite("stacked", CompositeDiscountPolicy.Mode.SUM, "fixDiscountPolicy", "rateDiscountPolicy");
+        int max = registry.registerComposite("best", CompositeDiscountPolicy.Mode.MAX, "fixDiscountPolicy", "rateDiscountPolicy");
+
+        assertThat(registry.discount(sum, vip, 20000)).isEqualTo(3000);
+        assertThat(registry.discount(max, vip, 20000)).isEqualTo(2000);
+        assertThat(registry.discount(max, vip, 5000)).isEqualTo(1000);
+        // 가격보다 많이 할인하지 않는다.
+        assertThat(registry.discount(sum, vip, 500)).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("같은 이름으로 다시 등록하면 번호는 그대로이고 정책만 바뀐다")
+    void replace() {
+        int fix = registry.handle("fixDiscountPolicy");
+        int size = registry.size();
+
+        int replaced = registry.register("fixDiscountPolicy", new FixDiscountPolicy(3000));
+
+        assertThat(replaced).isEqualTo(fix);
+        assertThat(registry.size()).isEqualTo(size);
+        assertThat(registry.discount(fix, vip, 20000)).isEqualTo(3000);
+        assertThat(registry.getInvocationCounts().keySet()).containsExactly("fixDiscountPolicy", "rateDiscountPolicy");
+    }
+
+    @Test
+    @DisplayName("묶은 정책도 배열로 한 번에 계산할 수 있다")
+    void compositeDiscountAll() {
+        DiscountPolicy stacked = registry.get(registry.registerComposite("stacked", CompositeDiscountPolicy.Mode.SUM,
+                "fixDiscountPolicy", "rateDiscountPolicy"));
+        byte[] gradeOrdinals = {(byte) Grade.VIP.ordinal(), (byte) Grade.BASIC.ordinal(), (byte) Grade.VIP.ordinal()};
+        int[] prices = {20000, 20000, 500};
+        int[] out = new int[3];
+
+        stacked.discountAll(gradeOrdinals, prices, out);
+
+        assertThat(out[0]).isEqualTo(3000);
+        assertThat(out[1]).isEqualTo(0);
+        assertThat(out[2]).isEqualTo(500);
+    }
+}
@@ -34,4 +34,25 @@ class RateDiscountPolicyTest {
         //then
         assertThat(discount).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("배열로 한 번에 계산해도 discount 와 같은 결과를 낸다")
+    void discountAll() {
+        //given
+        byte[] gradeOrdinals = new byte[1000];
+        int[] prices = new int[1000];
+        for (int i = 0; i < prices.length; i++) {
+            gradeOrdinals[i] = (byte) (i % 3 == 0 ? Grade.VIP.ordinal() : Grade.BASIC.ordinal());
+            prices[i] = i * 137;
+        }
+        int[] out = new int[prices.length];
+        //when
+        discountPolicy.discountAll(gradeOrdinals, prices, out);
+        //then
+        for (int i = 0; i < prices.length; i++) {
+            Member member = new Member((long) i, "member", Grade.values()[gradeOrdinals[i]]);
+            assertThat(out[i]).isEqualTo(discountPolicy.discount(member, prices[i]));
+        }
+        assertThrows(IllegalArgumentException.class, () -> discountPolicy.discountAll(gradeOrdinals, new int[1], out));
+    }
+}
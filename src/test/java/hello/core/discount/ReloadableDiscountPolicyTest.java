@@ -0,0 +1,119 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReloadableDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberA", Grade.VIP);
+
+    Path rulesFile;
+    ReloadableDiscountPolicy discountPolicy;
+
+    @AfterEach
+    void afterEach() throws Exception {
+        if (discountPolicy != null) {
+            discountPolicy.close();
+        }
+        if (rulesFile != null) {
+            Files.deleteIfExists(rulesFile);
+        }
+    }
+
+    @Test
+    @DisplayName("정책을 바꾸면 버전이 올라가고, 이전 스냅샷은 바뀌지 않는다")
+    void update() {
+        discountPolicy = new ReloadableDiscountPolicy(new RateDiscountPolicy(10));
+        DiscountPolicy before = discountPolicy.snapshot();
+
+        long version = discountPolicy.update(new FixDiscountPolicy(500));
+
+        assertThat(version).isEqualTo(2L);
+        assertThat(discountPolicy.getVersion()).isEqualTo(2L);
+        assertThat(discountPolicy.discount(vip, 20000)).isEqualTo(500);
+        assertThat(before.getVersion()).isEqualTo(1L);
+        assertThat(before.discount(vip, 20000)).isEqualTo(2000);
+    }
+
+    @Test
+    @DisplayName("정책을 바꾸는 중에도 읽는 쪽은 항상 완전한 스냅샷 하나를 본다")
+    void concurrentReaders() throws Exception {
+        discountPolicy = new ReloadableDiscountPolicy(new RateDiscountPolicy(10));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        // 버전 v 의 정책은 항상 v 원을 할인한다.
+        Thread reader = new Thread(() -> {
+            long lastVersion = 0;
+            while (running.get()) {
+                DiscountPolicy snapshot = discountPolicy.snapshot();
+                long version = snapshot.getVersion();
+                int discount = snapshot.discount(vip, 20000);
+                if (version < lastVersion || (version > 1 && discount != version)) {
+                    failure.set("version=" + version + ", discount=" + discount + ", last=" + lastVersion);
+                }
+                lastVersion = version;
+            }
+        });
+        reader.start();
+        for (int i = 2; i <= 10_000; i++) {
+            discountPolicy.update(new FixDiscountPolicy(i));
+        }
+        running.set(false);
+        reader.join();
+
+        assertThat(failure.get()).isNull();
+        assertThat(discountPolicy.getVersion()).isEqualTo(10_000L);
+    }
+
+    @Test
+    @DisplayName("감시 중인 규칙 파일이 바뀌면 다시 읽고, 잘못된 파일이면 이전 정책을 유지한다")
+    void watchFile() throws Exception {
+        rulesFile = Files.createTempFile("discount-rules", ".txt");
+        Files.write(rulesFile, Arrays.asList("grade=VIP percent=10"), StandardCharsets.UTF_8);
+        discountPolicy = new ReloadableDiscountPolicy("", rulesFile.toString(), 10);
+        discountPolicy.startWatching();
+        assertThat(discountPolicy.discount(vip, 20000)).isEqualTo(2000);
+
+        Files.write(rulesFile, Arrays.asList("grade=VIP amount=3000"), StandardCharsets.UTF_8);
+        touch(1);
+        assertThat(awaitVersion(discountPolicy.getVersion() + 1)).isTrue();
+        assertThat(discountPolicy.discount(vip, 20000)).isEqualTo(3000);
+
+        long version = discountPolicy.getVersion();
+        Files.write(rulesFile, Arrays.asList("grade=VIP percent=200"), StandardCharsets.UTF_8);
+        touch(2);
+        Thread.sleep(200);
+        assertThat(discountPolicy.getVersion()).isEqualTo(version);
+        assertThat(discountPolicy.discount(vip, 20000)).isEqualTo(3000);
+    }
+
+    // 파일 시스템의 수정 시각 해상도가 낮아도 변경이 보이도록 시각을 직접 옮긴다.
+    private void touch(int seconds) throws Exception {
+        FileTime modified = Files.getLastModifiedTime(rulesFile);
+        Files.setLastModifiedTime(rulesFile, FileTime.fromMillis(modified.toMillis() + seconds * 1000L));
+    }
+
+    private boolean awaitVersion(long version) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (discountPolicy.getVersion() >= version) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,144 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RuleDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberA", Grade.VIP);
+    Member basic = new Member(2L, "memberB", Grade.BASIC);
+
+    @Test
+    @DisplayName("규칙 파일의 기본 규칙은 RateDiscountPolicy 와 같은 결과를 낸다")
+    void sameAsRateDiscountPolicy() {
+        RuleDiscountPolicy discountPolicy = RuleDiscountPolicy.load("discount-rules.txt");
+        RateDiscountPolicy rateDiscountPolicy = new RateDiscountPolicy();
+
+        for (int price = 0; price < 100_000; price += 777) {
+            assertThat(discountPolicy.discount(vip, price)).isEqualTo(rateDiscountPolicy.discount(vip, price));
+            assertThat(discountPolicy.discount(basic, price)).isEqualTo(rateDiscountPolicy.discount(basic, price));
+        }
+    }
+
+    @Test
+    @DisplayName("가격 구간, stack, 우선순위, cap 이 모두 반영된다")
+    void bandsStackingAndCaps() {
+        RuleDiscountPolicy discountPolicy = RuleDiscountPolicy.parse(Arrays.asList(
+                "# 주석은 무시",
+                "grade=VIP amount=1000",
+                "grade=VIP min=50000 percent=10 cap=8000 priority=1",
+                "",
+                "grade=* min=100000 amount=500 stack"));
+
+        assertThat(discountPolicy.discount(vip, 10000)).isEqualTo(1000);
+        assertThat(discountPolicy.discount(vip, 60000)).isEqualTo(6000);
+        assertThat(discountPolicy.discount(vip, 100000)).isEqualTo(8000 + 500);
+        assertThat(discountPolicy.discount(basic, 60000)).isEqualTo(0);
+        assertThat(discountPolicy.discount(basic, 100000)).isEqualTo(500);
+        assertThat(discountPolicy.discount(new Member(3L, "memberC", null), 100000)).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("stack 규칙을 더한 할인은 가격을 넘지 않는다")
+    void stackingPastPrice() {
+        //given
+        RuleDiscountPolicy discountPolicy = RuleDiscountPolicy.parse(Arrays.asList(
+                "grade=VIP amount=3000",
+                "grade=* amount=2000 stack",
+                "grade=* percent=50 stack"));
+        byte[] gradeOrdinals = {(byte) Grade.VIP.ordinal(), (byte) Grade.VIP.ordinal(), (byte) Grade.BASIC.ordinal()};
+        int[] prices = {4000, 100_000, 3000};
+        int[] out = new int[prices.length];
+
+        //when
+        discountPolicy.discountAll(gradeOrdinals, prices, out);
+
+        //then
+        assertThat(discountPolicy.discount(vip, 4000)).isEqualTo(4000);
+        assertThat(discountPolicy.discount(vip, 100_000)).isEqualTo(3000 + 2000 + 50_000);
+        assertThat(discountPolicy.discount(basic, 3000)).isEqualTo(3000);
+        assertThat(out).containsExactly(4000, 55_000, 3000);
+    }
+
+    @Test
+    @DisplayName("규칙이 수백 개여도 규칙을 하나씩 해석한 결과와 같아야 한다")
+    void manyRules() {
+        Random random = new Random(42);
+        List<DiscountRule> rules = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int min = random.nextInt(200_000);
+            rules.add(new DiscountRule(random.nextBoolean() ? Grade.VIP : null, min, min + 1 + random.nextInt(100_000),
+                    random.nextInt(2000), random.nextInt(30), 1000 + random.nextInt(20_000), random.nextInt(10),
+                    random.nextInt(4) == 0));
+        }
+        RuleDiscountPolicy discountPolicy = new RuleDiscountPolicy(rules);
+
+        for (int i = 0; i < 20_000; i++) {
+            int price = random.nextInt(350_000);
+            Member member = random.nextBoolean() ? vip : basic;
+            assertThat(discountPolicy.discount(member, price)).isEqualTo(interpret(rules, member, price));
+        }
+    }
+
+    @Test
+    void invalidRule() {
+        assertThrows(IllegalArgumentException.class, () -> DiscountRule.parse("grade=GOLD percent=10"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountRule.parse("grade=VIP percent=ten"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountRule.parse("min=100 max=100 amount=1"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountRule.parse("VIP"));
+    }
+
+    // 규칙을 매번 해석하는 단순한 구현
+    private static int interpret(List<DiscountRule> rules, Member member, int price) {
+        int discount = 0;
+        DiscountRule exclusive = null;
+        for (DiscountRule rule : rules) {
+            if (!rule.appliesTo(member.getGrade(), price)) {
+                continue;
+            }
+            if (rule.isStackable()) {
+                discount += rule.discount(price);
+            } else if (exclusive == null || rule.getPriority() > exclusive.getPriority()) {
+                exclusive = rule;
+            }
+        }
+        if (exclusive != null) {
+            discount += exclusive.discount(price);
+        }
+        return Math.min(discount, price);
+    }
+
+    @Test
+    @DisplayName("배열로 한 번에 계산해도 discount 와 같은 결과를 낸다")
+    void discountAll() {
+        RuleDiscountPolicy discountPolicy = RuleDiscountPolicy.parse(Arrays.asList(
+                "grade=VIP amount=1000",
+                "grade=VIP min=50000 percent=10 cap=8000 priority=1",
+                "grade=* min=100000 amount=2000 stack"));
+        Random random = new Random(7);
+        byte[] gradeOrdinals = new byte[10_000];
+        int[] prices = new int[gradeOrdinals.length];
+        for (int i = 0; i < prices.length; i++) {
+            gradeOrdinals[i] = (byte) random.nextInt(Grade.values().length);
+            prices[i] = random.nextInt(200_000);
+        }
+        int[] out = new int[prices.length];
+
+        discountPolicy.discountAll(gradeOrdinals, prices, out);
+
+        for (int i = 0; i < prices.length; i++) {
+            Member member = new Member((long) i, "member", Grade.values()[gradeOrdinals[i]]);
+            assertThat(out[i]).isEqualTo(discountPolicy.discount(member, prices[i]));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentMemberRepositoryTest {
+
+    // 처리량 비교는 JMH 벤치마크(MemberRepositoryBenchmark)에서 한다.
+
+    static final int THREADS = 8;
+    static final int PER_THREAD = 20_000;
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 저장해도 유실되는 회원이 없어야 한다")
+    void concurrentSave() throws Exception {
+        //given
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        long base = 1_000_000L;
+
+        //when
+        int misses = run(memberRepository, base, 0);
+
+        //then
+        assertThat(misses).isZero();
+        for (long id = base; id < base + (long) THREADS * PER_THREAD; id++) {
+            Member findMember = memberRepository.findById(id);
+            assertThat(findMember).isNotNull();
+            assertThat(findMember.getId()).isEqualTo(id);
+            assertThat(findMember.getName()).isEqualTo("member" + id);
+        }
+    }
+
+    @Test
+    @DisplayName("저장과 조회가 섞여도 이미 저장한 회원은 항상 조회되어야 한다")
+    void concurrentSaveAndFind() throws Exception {
+        //given
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        long base = 2_000_000L;
+
+        //when
+        int misses = run(memberRepository, base, 4);
+
+        //then
+        assertThat(misses).isZero();
+    }
+
+    // 스레드마다 겹치지 않는 id 범위를 저장하고, 저장 1번 당 같은 스레드가 이미 저장한 회원을 readsPerWrite 번 조회한다.
+    // @return 조회되지 않았거나 다른 회원이 조회된 횟수
+    private int run(MemberRepository memberRepository, long base, int readsPerWrite) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long from = base + (long) t * PER_THREAD;
+            tasks.add(() -> {
+                start.await();
+                int misses = 0;
+                for (long id = from; id < from + PER_THREAD; id++) {
+                    memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+                    for (int r = 0; r < readsPerWrite; r++) {
+                        long savedId = from + (id - from) * r / readsPerWrite;
+                        Member findMember = memberRepository.findById(savedId);
+                        if (findMember == null || findMember.getId() != savedId) {
+                            misses++;
+                        }
+                    }
+                }
+                return misses;
+            });
+        }
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (Callable<Integer> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        start.countDown();
+        int misses = 0;
+        for (Future<Integer> future : futures) {
+            misses += future.get();
+        }
+        executor.shutdown();
+        return misses;
+    }
+}
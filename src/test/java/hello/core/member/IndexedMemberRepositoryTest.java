@@ -0,0 +1,76 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedMemberRepositoryTest {
+
+    IndexedMemberRepository memberRepository = new IndexedMemberRepository(new PrimitiveMemberRepository());
+
+    @Test
+    @DisplayName("등급으로 조회하면 해당 등급 회원만 저장 순서대로 반환한다")
+    void findByGrade() {
+        //given
+        Member memberA = new Member(1L, "memberA", Grade.VIP);
+        Member memberB = new Member(2L, "memberB", Grade.BASIC);
+        Member memberC = new Member(3L, "memberC", Grade.VIP);
+        memberRepository.saveAll(Arrays.asList(memberA, memberB, memberC));
+
+        //when, then
+        assertThat(memberRepository.findByGrade(Grade.VIP)).containsExactly(memberA, memberC);
+        assertThat(memberRepository.findByGrade(Grade.BASIC)).containsExactly(memberB);
+        assertThat(memberRepository.countByGrade(Grade.VIP)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("이름 접두어로 조회하면 이름 순서대로 반환한다")
+    void findByNamePrefix() {
+        Member kim = new Member(1L, "kim", Grade.BASIC);
+        Member kimA = new Member(2L, "kimA", Grade.BASIC);
+        Member lee = new Member(3L, "lee", Grade.VIP);
+        Member kimB = new Member(4L, "kimA", Grade.VIP);
+        memberRepository.save(kimA);
+        memberRepository.save(lee);
+        memberRepository.save(kim);
+        memberRepository.save(kimB);
+
+        assertThat(memberRepository.findByNamePrefix("kim")).containsExactly(kim, kimA, kimB);
+        assertThat(memberRepository.findByNamePrefix("kimA")).containsExactly(kimA, kimB);
+        assertThat(memberRepository.findByNamePrefix("park")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("같은 id 로 다시 저장하면 이전 등급, 이름 인덱스에서 빠진다")
+    void reindex() {
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        Member updated = new Member(1L, "vipA", Grade.VIP);
+
+        memberRepository.save(updated);
+
+        assertThat(memberRepository.findByGrade(Grade.BASIC)).isEmpty();
+        assertThat(memberRepository.findByGrade(Grade.VIP)).containsExactly(updated);
+        assertThat(memberRepository.findByNamePrefix("member")).isEmpty();
+        assertThat(memberRepository.findByNamePrefix("vip")).containsExactly(updated);
+    }
+
+    @Test
+    @DisplayName("같은 이름의 회원이 많아도 모두 저장된 순서대로 조회된다")
+    void manyMembersWithSameName() {
+        for (long id = 0; id < 200_000; id++) {
+            memberRepository.save(new Member(id, "kim", Grade.BASIC));
+        }
+        memberRepository.save(new Member(0L, "park", Grade.BASIC));
+
+        List<Member> kims = memberRepository.findByNamePrefix("kim");
+
+        assertThat(kims).hasSize(199_999);
+        assertThat(kims.get(0).getId()).isEqualTo(1L);
+        assertThat(kims.get(kims.size() - 1).getId()).isEqualTo(199_999L);
+        assertThat(memberRepository.findByNamePrefix("park")).hasSize(1);
+    }
+}
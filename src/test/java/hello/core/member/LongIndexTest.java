@@ -0,0 +1,51 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIndexTest {
+
+    @Test
+    @DisplayName("저장한 키의 행 번호를 찾고, 없는 키는 -1 을 반환한다")
+    void putAndGet() {
+        LongIndex index = new LongIndex(4);
+
+        index.put(0L, 0);
+        index.put(-1L, 1);
+        index.put(Long.MAX_VALUE, 2);
+
+        assertThat(index.get(0L)).isEqualTo(0);
+        assertThat(index.get(-1L)).isEqualTo(1);
+        assertThat(index.get(Long.MAX_VALUE)).isEqualTo(2);
+        assertThat(index.get(7L)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("같은 키를 다시 저장하면 행 번호만 바뀌고 크기는 그대로다")
+    void overwrite() {
+        LongIndex index = new LongIndex(4);
+
+        assertThat(index.put(10L, 0)).isEqualTo(-1);
+        assertThat(index.put(10L, 5)).isEqualTo(0);
+
+        assertThat(index.get(10L)).isEqualTo(5);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("용량을 넘게 저장해도 모든 키를 찾을 수 있어야 한다")
+    void resize() {
+        LongIndex index = new LongIndex(1);
+
+        for (int i = 0; i < 100_000; i++) {
+            index.put(i * 31L, i);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(index.get(i * 31L)).isEqualTo(i);
+        }
+        assertThat(index.size()).isEqualTo(100_000);
+    }
+}
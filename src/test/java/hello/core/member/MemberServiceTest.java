@@ -5,6 +5,8 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 public class MemberServiceTest {
 
     MemberService memberService;
@@ -27,4 +29,18 @@ public class MemberServiceTest {
         //then
         Assertions.assertThat(member).isEqualTo(findMember);
     }
+
+    @Test
+    void joinAll() {
+        //given
+        Member memberA = new Member(101L, "memberA", Grade.VIP);
+        Member memberB = new Member(102L, "memberB", Grade.BASIC);
+
+        //when
+        memberService.joinAll(Arrays.asList(memberA, memberB));
+        Member[] findMembers = memberService.findMembers(new long[]{102L, 101L});
+
+        //then
+        Assertions.assertThat(findMembers).containsExactly(memberB, memberA);
+    }
 }
@@ -0,0 +1,174 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MemberSnapshotTest {
+
+    Path snapshot = createTempFile();
+
+    @AfterEach
+    void afterEach() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Test
+    @DisplayName("스냅샷을 다시 읽으면 저장했던 회원을 그대로 조회할 수 있다")
+    void writeAndLoad() throws IOException {
+        //given
+        OffHeapMemberRepository memberRepository = new OffHeapMemberRepository();
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        memberRepository.save(new Member(2L, "회원B", Grade.BASIC));
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+
+        //when
+        MemberSnapshot.write(memberRepository, snapshot);
+        OffHeapMemberRepository loaded = MemberSnapshot.load(snapshot);
+
+        //then
+        assertThat(loaded.size()).isEqualTo(2);
+        assertThat(loaded.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(loaded.findById(2L).getName()).isEqualTo("회원B");
+        assertThat(loaded.findById(3L)).isNull();
+    }
+
+    @Test
+    @DisplayName("읽어온 저장소에 저장해도 스냅샷 파일은 바뀌지 않는다")
+    void saveAfterLoad() throws IOException {
+        OffHeapMemberRepository memberRepository = new OffHeapMemberRepository();
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        MemberSnapshot.write(memberRepository, snapshot);
+
+        OffHeapMemberRepository loaded = MemberSnapshot.load(snapshot);
+        loaded.save(new Member(2L, "memberB", Grade.BASIC));
+
+        assertThat(loaded.findById(2L).getName()).isEqualTo("memberB");
+        assertThat(loaded.findById(1L).getName()).isEqualTo("memberA");
+        assertThat(MemberSnapshot.load(snapshot).findById(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("오프힙이 아닌 저장소도 스냅샷으로 쓰고 다른 저장소에 다시 채울 수 있다")
+    void writeAndLoadIntoShardedRepository() throws IOException {
+        //given
+        ShardedMemberRepository memberRepository = new ShardedMemberRepository(4, false);
+        for (long id = 0; id < 1_000; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        memberRepository.save(new Member(0L, "memberA", Grade.BASIC));
+
+        //when
+        MemberSnapshot.write(memberRepository, snapshot);
+        ShardedMemberRepository loaded = new ShardedMemberRepository(8, false);
+        int count = MemberSnapshot.loadInto(snapshot, loaded);
+
+        //then
+        assertThat(count).isEqualTo(1_000);
+        assertThat(loaded.findById(0L).getName()).isEqualTo("memberA");
+        assertThat(loaded.findById(0L).getGrade()).isEqualTo(Grade.BASIC);
+        assertThat(loaded.findById(990L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(loaded.findById(1_000L)).isNull();
+    }
+
+    @Test
+    @DisplayName("SnapshotMemberRepository 는 닫을 때 스냅샷을 쓰고, 다시 만들 때 읽어서 채운다")
+    void snapshotMemberRepository() throws IOException {
+        //given
+        Files.delete(snapshot);
+        try (SnapshotMemberRepository memberRepository = new SnapshotMemberRepository(new PrimitiveMemberRepository(), snapshot, 0)) {
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+            memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+
+        //when
+        try (SnapshotMemberRepository memberRepository = new SnapshotMemberRepository(new PrimitiveMemberRepository(), snapshot, 0)) {
+
+            //then
+            assertThat(memberRepository.findById(1L).getName()).isEqualTo("memberA");
+            assertThat(memberRepository.findById(2L).getGrade()).isEqualTo(Grade.BASIC);
+        }
+    }
+
+    @Test
+    @DisplayName("SnapshotMemberRepository 는 스냅샷을 옮겨 담지 않고 매핑된 채로 조회하고, 이후 저장은 감싼 저장소에만 한다")
+    void snapshotMemberRepositoryOverlay() throws IOException {
+        //given
+        OffHeapMemberRepository written = new OffHeapMemberRepository();
+        for (long id = 1; id <= 100; id++) {
+            written.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        MemberSnapshot.write(written, snapshot);
+        PrimitiveMemberRepository overlay = new PrimitiveMemberRepository();
+
+        try (SnapshotMemberRepository memberRepository = new SnapshotMemberRepository(overlay, snapshot, 0)) {
+            //when
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+            memberRepository.save(new Member(101L, "member101", Grade.BASIC));
+
+            //then
+            List<Member> copied = new ArrayList<>();
+            overlay.forEach(copied::add);
+            assertThat(copied).hasSize(2);
+            assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+            assertThat(memberRepository.findById(50L).getName()).isEqualTo("member50");
+            assertThat(memberRepository.findById(102L)).isNull();
+
+            Member[] members = memberRepository.findAllById(new long[]{1L, 50L, 101L, 102L});
+            assertThat(members[0].getName()).isEqualTo("memberA");
+            assertThat(members[1].getName()).isEqualTo("member50");
+            assertThat(members[2].getName()).isEqualTo("member101");
+            assertThat(members[3]).isNull();
+
+            List<Member> all = new ArrayList<>();
+            memberRepository.forEach(all::add);
+            assertThat(all).hasSize(101);
+        }
+
+        // 닫을 때 두 저장소를 합쳐서 쓴다.
+        OffHeapMemberRepository reloaded = MemberSnapshot.load(snapshot);
+        assertThat(reloaded.size()).isEqualTo(101);
+        assertThat(reloaded.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+    }
+
+    @Test
+    void corruptSnapshot() throws IOException {
+        Files.write(snapshot, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+        assertThrows(IOException.class, () -> MemberSnapshot.load(snapshot));
+    }
+
+    @Test
+    @DisplayName("백만 명 스냅샷을 읽어서 조회 가능해지기까지 걸리는 시간을 출력한다")
+    void warmStart() throws IOException {
+        OffHeapMemberRepository memberRepository = new OffHeapMemberRepository(1_000_000);
+        for (long id = 0; id < 1_000_000; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        MemberSnapshot.write(memberRepository, snapshot);
+
+        long start = System.nanoTime();
+        OffHeapMemberRepository loaded = MemberSnapshot.load(snapshot);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("snapshot bytes = " + Files.size(snapshot) + ", load = " + elapsedMillis + "ms");
+        assertThat(loaded.findById(999_999L).getName()).isEqualTo("member999999");
+    }
+
+    private static Path createTempFile() {
+        try {
+            return Files.createTempFile("members", ".snapshot");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
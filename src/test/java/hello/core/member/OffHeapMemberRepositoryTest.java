@@ -0,0 +1,88 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffHeapMemberRepositoryTest {
+
+    OffHeapMemberRepository memberRepository = new OffHeapMemberRepository(4);
+
+    @Test
+    void save() {
+        //given
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        memberRepository.save(new Member(2L, "회원B", Grade.BASIC));
+
+        //when
+        Member findMember = memberRepository.findById(2L);
+
+        //then
+        assertThat(findMember.getId()).isEqualTo(2L);
+        assertThat(findMember.getName()).isEqualTo("회원B");
+        assertThat(findMember.getGrade()).isEqualTo(Grade.BASIC);
+        assertThat(memberRepository.findById(3L)).isNull();
+    }
+
+    @Test
+    @DisplayName("같은 스레드의 조회는 같은 flyweight 객체를 재사용한다")
+    void flyweight() {
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+
+        Member first = memberRepository.findById(1L);
+        assertThat(first.getName()).isEqualTo("memberA");
+        Member second = memberRepository.findById(2L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getName()).isEqualTo("memberB");
+        assertThrows(UnsupportedOperationException.class, () -> second.setGrade(Grade.VIP));
+    }
+
+    @Test
+    @DisplayName("같은 id 로 다시 저장하면 새 값이 조회된다")
+    void saveSameId() {
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        memberRepository.save(new Member(1L, null, Grade.VIP));
+
+        Member findMember = memberRepository.findById(1L);
+
+        assertThat(findMember.getName()).isNull();
+        assertThat(findMember.getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("대량 조회는 flyweight 가 아닌 각각의 회원 객체를 반환한다")
+    void saveAll() {
+        memberRepository.saveAll(Arrays.asList(
+                new Member(1L, "memberA", Grade.VIP),
+                new Member(2L, "memberB", Grade.BASIC)));
+
+        Member[] findMembers = memberRepository.findAllById(new long[]{2L, 3L, 1L});
+
+        assertThat(findMembers[0].getName()).isEqualTo("memberB");
+        assertThat(findMembers[1]).isNull();
+        assertThat(findMembers[2].getName()).isEqualTo("memberA");
+        assertThat(findMembers[2].getGrade()).isEqualTo(Grade.VIP);
+    }
+
+    @Test
+    @DisplayName("초기 용량을 넘게 저장해도 모든 회원을 찾을 수 있어야 한다")
+    void grow() {
+        for (long id = 0; id < 50_000; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 3 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        for (long id = 0; id < 50_000; id++) {
+            Member findMember = memberRepository.findById(id);
+            assertThat(findMember.getId()).isEqualTo(id);
+            assertThat(findMember.getName()).isEqualTo("member" + id);
+            assertThat(findMember.getGrade()).isEqualTo(id % 3 == 0 ? Grade.VIP : Grade.BASIC);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrimitiveMemberRepositoryTest {
+
+    PrimitiveMemberRepository memberRepository = new PrimitiveMemberRepository(4);
+
+    @Test
+    void save() {
+        //given
+        Member member = new Member(1L, "memberA", Grade.VIP);
+
+        //when
+        memberRepository.save(member);
+
+        //then
+        assertThat(memberRepository.findById(1L)).isSameAs(member);
+        assertThat(memberRepository.findById(Long.valueOf(1L))).isSameAs(member);
+        assertThat(memberRepository.findById(2L)).isNull();
+        assertThat(memberRepository.findById((Long) null)).isNull();
+    }
+
+    @Test
+    @DisplayName("같은 id 로 다시 저장하면 새 회원으로 교체된다")
+    void saveSameId() {
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        Member updated = new Member(1L, "memberA", Grade.VIP);
+
+        memberRepository.save(updated);
+
+        assertThat(memberRepository.findById(1L)).isSameAs(updated);
+    }
+
+    @Test
+    @DisplayName("대량 저장 후 대량 조회하면 id 순서대로 회원이 담겨야 한다")
+    void saveAll() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 10_000; id++) {
+            members.add(new Member(id, "member" + id, Grade.BASIC));
+        }
+
+        //when
+        memberRepository.saveAll(members);
+        Member[] findMembers = memberRepository.findAllById(new long[]{9_999L, 10_000L, 0L});
+
+        //then
+        assertThat(findMembers[0]).isSameAs(members.get(9_999));
+        assertThat(findMembers[1]).isNull();
+        assertThat(findMembers[2]).isSameAs(members.get(0));
+    }
+
+    @Test
+    @DisplayName("저장하는 도중에 조회하는 스레드는 저장이 끝난 회원을 온전히 봐야 한다")
+    void readWhileWriting() throws Exception {
+        int count = 200_000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger broken = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                for (long id = 0; id < count; id += 997) {
+                    Member member = memberRepository.findById(id);
+                    if (member != null && (member.getId() != id || member.getName() == null)) {
+                        broken.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (long id = 0; id < count; id++) {
+            memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        done.set(true);
+        reader.join();
+
+        assertThat(broken.get()).isEqualTo(0);
+        for (long id = 0; id < count; id++) {
+            assertThat(memberRepository.findById(id).getName()).isEqualTo("member" + id);
+        }
+    }
+}
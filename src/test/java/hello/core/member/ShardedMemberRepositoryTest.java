@@ -0,0 +1,90 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedMemberRepositoryTest {
+
+    @Test
+    void save() {
+        //given
+        ShardedMemberRepository memberRepository = new ShardedMemberRepository(4, false);
+        Member member = new Member(1L, "memberA", Grade.VIP);
+
+        //when
+        memberRepository.save(member);
+
+        //then
+        assertThat(memberRepository.findById(1L)).isSameAs(member);
+        assertThat(memberRepository.findById(Long.valueOf(1L))).isSameAs(member);
+        assertThat(memberRepository.findById(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("파티션 전용 스레드로 대량 저장, 대량 조회해도 요청한 순서대로 반환된다")
+    void saveAllWithPartitionExecutors() {
+        ShardedMemberRepository memberRepository = new ShardedMemberRepository(5, true);
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 10_000; id++) {
+            members.add(new Member(id, "member" + id, Grade.BASIC));
+        }
+
+        memberRepository.saveAll(members);
+        long[] ids = new long[10_001];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ids.length - 1 - i;
+        }
+        Member[] findMembers = memberRepository.findAllById(ids);
+        memberRepository.close();
+
+        assertThat(findMembers[0]).isNull();
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(findMembers[i]).isSameAs(members.get((int) ids[i]));
+        }
+    }
+
+    @Test
+    void invalidPartitionCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedMemberRepository(0, false));
+    }
+
+    @Test
+    @DisplayName("파티션 수에 따른 동시 저장 처리량을 출력한다")
+    void throughput() throws Exception {
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int perThread = 50_000;
+        for (int partitions : new int[]{1, threads, threads * 4}) {
+            ShardedMemberRepository memberRepository = new ShardedMemberRepository(partitions, false);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                long from = (long) t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (long id = from; id < from + perThread; id++) {
+                        memberRepository.save(new Member(id, "member", Grade.BASIC));
+                        memberRepository.findById(id);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            executor.shutdown();
+
+            System.out.println("partitions = " + partitions + ", threads = " + threads
+                    + ", " + (long) threads * perThread / elapsedMillis + " joins/ms");
+            assertThat(memberRepository.findById((long) threads * perThread - 1)).isNotNull();
+        }
+    }
+}
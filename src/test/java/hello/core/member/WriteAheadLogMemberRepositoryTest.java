@@ -0,0 +1,227 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WriteAheadLogMemberRepositoryTest {
+
+    Path logPath = createTempFile();
+
+    @AfterEach
+    void afterEach() throws IOException {
+        Files.deleteIfExists(logPath);
+    }
+
+    @Test
+    @DisplayName("재시작하면 로그를 다시 읽어서 저장했던 회원을 복구한다")
+    void replay() throws IOException {
+        //given
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+            memberRepository.save(new Member(2L, null, Grade.VIP));
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        }
+
+        //when
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+
+            //then
+            assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+            assertThat(memberRepository.findById(2L).getName()).isNull();
+            assertThat(memberRepository.findById(3L)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("쓰다가 잘린 마지막 기록은 버리고 그 앞까지 복구한다")
+    void tornTail() throws IOException {
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        }
+        long validSize = Files.size(logPath);
+        Files.write(logPath, new byte[]{0, 0, 0, 20, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            assertThat(memberRepository.findById(1L).getName()).isEqualTo("memberA");
+            assertThat(Files.size(logPath)).isEqualTo(validSize);
+            memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            assertThat(memberRepository.findById(2L).getName()).isEqualTo("memberB");
+        }
+    }
+
+    @Test
+    @DisplayName("끝이 0 으로 채워진 로그도 잘린 꼬리로 보고 잘라낸다")
+    void zeroFilledTail() throws IOException {
+        //given
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        }
+        long validSize = Files.size(logPath);
+        Files.write(logPath, new byte[4096], StandardOpenOption.APPEND);
+
+        //when
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+
+            //then
+            assertThat(memberRepository.findById(1L).getName()).isEqualTo("memberA");
+            assertThat(Files.size(logPath)).isEqualTo(validSize);
+            memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            assertThat(memberRepository.findById(2L).getName()).isEqualTo("memberB");
+        }
+    }
+
+    @Test
+    @DisplayName("이름 길이가 기록 길이를 넘는 기록은 깨진 기록으로 본다")
+    void decodeNameLengthOutOfRange() {
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES + 1 + Integer.BYTES + 3);
+        payload.putLong(1L).put((byte) 0).putInt(100).put(new byte[]{'a', 'b', 'c'}).flip();
+
+        assertThat(MemberWriteAheadLog.decode(payload)).isNull();
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 저장은 force 한 번에 묶여서 반영된다")
+    void groupCommit() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                long from = (long) t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (long id = from; id < from + perThread; id++) {
+                        memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            executor.shutdown();
+
+            long forceCount = memberRepository.getLog().getForceCount();
+            System.out.println("joins = " + threads * perThread + ", forces = " + forceCount + ", " + elapsedMillis + "ms");
+            assertThat(forceCount).isLessThan(threads * perThread);
+        }
+
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            for (long id = 0; id < threads * perThread; id++) {
+                assertThat(memberRepository.findById(id).getName()).isEqualTo("member" + id);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("대량 저장은 force 한 번으로 반영된다")
+    void saveAll() throws IOException {
+        List<Member> members = new ArrayList<>();
+        for (long id = 0; id < 1_000; id++) {
+            members.add(new Member(id, "member" + id, Grade.VIP));
+        }
+
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            memberRepository.saveAll(members);
+            assertThat(memberRepository.getLog().getForceCount()).isEqualTo(1L);
+        }
+
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            Member[] findMembers = memberRepository.findAllById(new long[]{0L, 999L});
+            assertThat(findMembers[0].getName()).isEqualTo("member0");
+            assertThat(findMembers[1].getName()).isEqualTo("member999");
+        }
+    }
+
+    @Test
+    @DisplayName("compact 하면 id 별 마지막 기록만 남는다")
+    void compact() throws IOException {
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            for (int i = 0; i < 100; i++) {
+                memberRepository.save(new Member(1L, "memberA" + i, Grade.BASIC));
+            }
+            memberRepository.save(new Member(2L, "memberB", Grade.VIP));
+            long before = Files.size(logPath);
+
+            memberRepository.compact();
+            memberRepository.save(new Member(3L, "memberC", Grade.VIP));
+
+            assertThat(Files.size(logPath)).isLessThan(before);
+        }
+
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            assertThat(memberRepository.findById(1L).getName()).isEqualTo("memberA99");
+            assertThat(memberRepository.findById(2L).getName()).isEqualTo("memberB");
+            assertThat(memberRepository.findById(3L).getName()).isEqualTo("memberC");
+        }
+    }
+
+    @Test
+    @DisplayName("로그 쓰기에 실패하면 저장소에 반영하지 않고, 이후의 저장도 받지 않는다")
+    void failure() throws IOException {
+        //given
+        WriteAheadLogMemberRepository memberRepository = open();
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        // 파일을 닫아서 다음 쓰기가 실패하게 만든다.
+        memberRepository.getLog().close();
+
+        //when
+        assertThrows(UncheckedIOException.class, () -> memberRepository.save(new Member(2L, "memberB", Grade.BASIC)));
+
+        //then
+        assertThat(memberRepository.findById(2L)).isNull();
+        assertThrows(UncheckedIOException.class, () -> memberRepository.save(new Member(3L, "memberC", Grade.BASIC)));
+        assertThat(memberRepository.findById(3L)).isNull();
+        assertThat(memberRepository.findById(1L).getName()).isEqualTo("memberA");
+    }
+
+    @Test
+    @DisplayName("최대 크기(1MB)를 넘는 기록은 받지 않고, 뒤의 기록도 재시작 후 그대로 복구된다")
+    void recordTooLarge() throws IOException {
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            String hugeName = "a".repeat(1 << 20);
+            assertThrows(IllegalArgumentException.class, () -> memberRepository.save(new Member(1L, hugeName, Grade.VIP)));
+            assertThat(memberRepository.findById(1L)).isNull();
+            memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+
+        try (WriteAheadLogMemberRepository memberRepository = open()) {
+            assertThat(memberRepository.findById(1L)).isNull();
+            assertThat(memberRepository.findById(2L).getName()).isEqualTo("memberB");
+        }
+    }
+
+    private WriteAheadLogMemberRepository open() throws IOException {
+        return new WriteAheadLogMemberRepository(new PrimitiveMemberRepository(), logPath);
+    }
+
+    private static Path createTempFile() {
+        try {
+            return Files.createTempFile("members", ".wal");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
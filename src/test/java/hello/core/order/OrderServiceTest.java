@@ -1,14 +1,24 @@
 package hello.core.order;
 
 import hello.core.AppConfig;
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.discount.ReloadableDiscountPolicy;
 import hello.core.member.Grade;
 import hello.core.member.Member;
 import hello.core.member.MemberService;
 import hello.core.member.MemberServiceImpl;
+import hello.core.member.MemoryMemberRepository;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 public class OrderServiceTest {
 
     MemberService memberService;
@@ -30,4 +40,75 @@ public class OrderServiceTest {
         Order order = orderService.createOrder(memberId, "itemA", 10000);
         Assertions.assertThat(order.getDiscountPrice()).isEqualTo(1000);
     }
+
+    @Test
+    void createOrders() {
+        memberService.join(new Member(11L, "memberA", Grade.VIP));
+        memberService.join(new Member(12L, "memberB", Grade.BASIC));
+
+        List<Order> orders = new ArrayList<>();
+        orderService.createOrders(new long[]{11L, 12L, 11L},
+                new String[]{"itemA", "itemB", "itemC"}, new int[]{10000, 10000, 20000}, orders::add);
+
+        Assertions.assertThat(orders).hasSize(3);
+        Assertions.assertThat(orders.get(0).getDiscountPrice()).isEqualTo(1000);
+        Assertions.assertThat(orders.get(1).getDiscountPrice()).isEqualTo(0);
+        Assertions.assertThat(orders.get(2).getItemName()).isEqualTo("itemC");
+        Assertions.assertThat(orders.get(2).getDiscountPrice()).isEqualTo(2000);
+    }
+
+    @Test
+    @DisplayName("없는 회원의 주문이 섞여 있으면 주문을 하나도 만들지 않는다")
+    void createOrdersWithUnknownMember() {
+        memberService.join(new Member(13L, "memberA", Grade.VIP));
+
+        List<Order> orders = new ArrayList<>();
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrders(new long[]{13L, 14L},
+                new String[]{"itemA", "itemB"}, new int[]{10000, 10000}, orders::add));
+
+        Assertions.assertThat(orders).isEmpty();
+    }
+
+    @Test
+    @DisplayName("병렬로 계산해도 결과는 입력 순서와 같아야 한다")
+    void createOrdersParallel() {
+        memberService.join(new Member(21L, "memberA", Grade.VIP));
+        memberService.join(new Member(22L, "memberB", Grade.BASIC));
+        ((OrderServiceImpl) orderService).setMinChunkSize(100);
+
+        int count = 10_000;
+        long[] memberIds = new long[count];
+        String[] itemNames = new String[count];
+        int[] itemPrices = new int[count];
+        for (int i = 0; i < count; i++) {
+            memberIds[i] = i % 2 == 0 ? 21L : 22L;
+            itemNames[i] = "item" + i;
+            itemPrices[i] = 1000 + i;
+        }
+
+        Order[] orders = orderService.createOrdersParallel(memberIds, itemNames, itemPrices);
+
+        for (int i = 0; i < count; i++) {
+            Assertions.assertThat(orders[i].getItemName()).isEqualTo("item" + i);
+            Assertions.assertThat(orders[i].getDiscountPrice()).isEqualTo(i % 2 == 0 ? (1000 + i) / 10 : 0);
+        }
+    }
+
+    @Test
+    @DisplayName("주문에는 계산할 때 사용한 할인 정책 버전이 기록된다")
+    void discountPolicyVersion() {
+        MemoryMemberRepository memberRepository = new MemoryMemberRepository();
+        memberRepository.save(new Member(31L, "memberA", Grade.VIP));
+        ReloadableDiscountPolicy discountPolicy = new ReloadableDiscountPolicy(new RateDiscountPolicy());
+        OrderService orderService = new OrderServiceImpl(memberRepository, discountPolicy);
+
+        Order before = orderService.createOrder(31L, "itemA", 20000);
+        discountPolicy.update(new FixDiscountPolicy());
+        Order after = orderService.createOrder(31L, "itemA", 20000);
+
+        Assertions.assertThat(before.getDiscountPolicyVersion()).isEqualTo(1L);
+        Assertions.assertThat(before.getDiscountPrice()).isEqualTo(2000);
+        Assertions.assertThat(after.getDiscountPolicyVersion()).isEqualTo(2L);
+        Assertions.assertThat(after.getDiscountPrice()).isEqualTo(1000);
+    }
 }
@@ -1,11 +1,19 @@
 package hello.core.scan;
 
 import hello.core.AutoAppConfig;
+import hello.core.annotation.MainDiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.discount.ReloadableDiscountPolicy;
 import hello.core.member.MemberService;
+import hello.core.member.MemberServiceImpl;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.stereotype.Component;
 
 public class AutoAppConfigTest {
 
@@ -16,4 +24,18 @@ public class AutoAppConfigTest {
         MemberService memberService = ac.getBean(MemberService.class);
         Assertions.assertThat(memberService).isInstanceOf(MemberService.class);
     }
+
+    @Test
+    @DisplayName("빌드할 때 만든 컴포넌트 인덱스에 컴포넌트와 한정자가 기록된다.")
+    void componentIndex() {
+        CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(getClass().getClassLoader());
+
+        Assertions.assertThat(index).isNotNull();
+        Assertions.assertThat(index.getCandidateTypes("hello.core", Component.class.getName()))
+                .contains(MemberServiceImpl.class.getName(), RateDiscountPolicy.class.getName())
+                .doesNotContain(ReloadableDiscountPolicy.class.getName());
+        // ReloadableDiscountPolicy 는 AppConfig 에서만 등록하므로 @MainDiscountPolicy 는 RateDiscountPolicy 하나다.
+        Assertions.assertThat(index.getCandidateTypes("hello.core", MainDiscountPolicy.class.getName()))
+                .containsExactly(RateDiscountPolicy.class.getName());
+    }
 }
@@ -1,6 +1,8 @@
 package hello.core.singleton;
 
 import hello.core.AppConfig;
+import hello.core.AppConfig__BeanRegistrar;
+import hello.core.AppContexts;
 import hello.core.member.MemberRepository;
 import hello.core.member.MemberServiceImpl;
 import hello.core.order.OrderServiceImpl;
@@ -8,6 +10,7 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
 
 public class ConfigurationSingletonTest {
 
@@ -44,4 +47,33 @@ public class ConfigurationSingletonTest {
         // AppConig@CGLIB 조회가 된 이유는 AppConfig의 자식 타입이라 조회가 된것
         System.out.println("bean = " + bean.getClass());
     }
+
+    @Test
+    void proxyFreeConfigurationTest() {
+        GenericApplicationContext ac = AppContexts.proxyFreeAppConfig();
+        MemberServiceImpl memberService = ac.getBean("memberService", MemberServiceImpl.class);
+        OrderServiceImpl orderService = ac.getBean("orderService", OrderServiceImpl.class);
+        MemberRepository memberRepository = ac.getBean("memberRepository", MemberRepository.class);
+
+        // CGLIB 프록시가 아니라 컴파일할 때 만든 AppConfig__BeanRegistrar 가 등록된다.
+        Assertions.assertThat(ac.getBean(AppConfig.class).getClass()).isEqualTo(AppConfig__BeanRegistrar.class);
+        // 프록시가 없어도 memberRepository 인스턴스는 모두 같은 인스턴스가 공유되어 사용된다.
+        Assertions.assertThat(memberService.getMemberRepository()).isSameAs(memberRepository);
+        Assertions.assertThat(orderService.getMemberRepository()).isSameAs(memberRepository);
+        ac.close();
+    }
+
+    @Test
+    void proxyFreeConfigurationDependencies() {
+        GenericApplicationContext ac = AppContexts.proxyFreeAppConfig();
+
+        // CGLIB 프록시처럼 @Bean 메서드끼리 호출한 관계가 의존 관계로 기록된다.
+        Assertions.assertThat(ac.getBeanFactory().getDependenciesForBean("orderService"))
+                .contains("memberRepository", "discountPolicy", AppConfig__BeanRegistrar.CONFIGURATION_BEAN_NAME);
+        Assertions.assertThat(ac.getBeanFactory().getDependenciesForBean("memberService"))
+                .contains("memberRepository");
+        Assertions.assertThat(ac.getBeanFactory().getDependentBeans("memberRepository"))
+                .contains("memberService", "orderService");
+        ac.close();
+    }
 }
@@ -0,0 +1,78 @@
+package hello.core.web;
+
+import hello.core.common.AsyncLogWriter;
+import hello.core.common.MyLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncWorkExecutorTest {
+
+    Path file;
+    AsyncLogWriter logWriter;
+    MyLogger myLogger;
+    AsyncWorkExecutor asyncWorkExecutor;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        file = Files.createTempFile("async-work", ".log");
+        logWriter = new AsyncLogWriter(file, 1024, AsyncLogWriter.OverflowPolicy.BLOCK);
+        myLogger = new MyLogger(logWriter);
+        asyncWorkExecutor = new AsyncWorkExecutor(myLogger, RequestExecutors.create(false, 4, "async-work"));
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        asyncWorkExecutor.close();
+        logWriter.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("작업 스레드에서도 넘긴 요청의 uuid 를 본다")
+    void propagateRequestContext() throws Exception {
+        myLogger.begin("http://localhost/log-demo-async");
+        String uuid = myLogger.getUuid();
+
+        CompletableFuture<String> threadName = asyncWorkExecutor.supplyAsync(() -> Thread.currentThread().getName());
+        CompletableFuture<String> workerUuid = asyncWorkExecutor.supplyAsync(myLogger::getUuid);
+        myLogger.detach();
+
+        assertThat(threadName.get(5, TimeUnit.SECONDS)).startsWith("async-work-");
+        assertThat(workerUuid.get(5, TimeUnit.SECONDS)).isEqualTo(uuid);
+    }
+
+    @Test
+    @DisplayName("요청 스레드는 느린 작업을 기다리지 않는다")
+    void doesNotBlockCaller() throws Exception {
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            results.add(asyncWorkExecutor.supplyAsync(() -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "OK";
+            }));
+        }
+        long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("OK");
+        }
+        // 100 개 x 20ms 를 4 스레드로 나누면 최소 500ms 이지만, 넘기는 데는 그보다 훨씬 짧게 걸린다.
+        assertThat(submitMillis).isLessThan(200);
+    }
+}
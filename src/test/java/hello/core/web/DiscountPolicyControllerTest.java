@@ -0,0 +1,78 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.core.AppConfig;
+import hello.core.common.AsyncLogWriter;
+import hello.core.common.MyLogger;
+import hello.core.discount.ReloadableDiscountPolicy;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberService;
+import hello.core.order.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DiscountPolicyControllerTest {
+
+    AnnotationConfigApplicationContext ac;
+    AsyncLogWriter logWriter;
+    AsyncWorkExecutor asyncWorkExecutor;
+    MockMvc mockMvc;
+
+    // 관리용 API 와 주문 API 가 같은 컨테이너(AppConfig)의 빈을 사용한다.
+    @BeforeEach
+    void beforeEach() {
+        ac = new AnnotationConfigApplicationContext(AppConfig.class);
+        MemberService memberService = ac.getBean(MemberService.class);
+        memberService.join(new Member(1L, "memberA", Grade.VIP));
+
+        logWriter = new AsyncLogWriter((Path) null, 1024, AsyncLogWriter.OverflowPolicy.DROP);
+        asyncWorkExecutor = new AsyncWorkExecutor(new MyLogger(logWriter), RequestExecutors.create(false, 4, "async-work"));
+        OrderController orderController = new OrderController(ac.getBean(OrderService.class), memberService,
+                asyncWorkExecutor, ac.getBeanProvider(ObjectMapper.class));
+        DiscountPolicyController discountPolicyController = new DiscountPolicyController(ac.getBean(ReloadableDiscountPolicy.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(discountPolicyController, orderController).build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        asyncWorkExecutor.close();
+        logWriter.close();
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("관리용 API 로 정책을 바꾸면 이후 주문은 새 정책과 새 버전으로 계산된다")
+    void updateThenOrder() throws Exception {
+        //given
+        String order = "{\"memberId\":1,\"itemName\":\"itemA\",\"itemPrice\":10000}";
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(order))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.discountPrice").value(1000))
+                .andExpect(jsonPath("$.discountPolicyVersion").value(1));
+
+        //when
+        mockMvc.perform(post("/discount-policy").contentType(MediaType.TEXT_PLAIN).content("grade=VIP amount=3000"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("version=2"));
+
+        //then
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(order))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.discountPrice").value(3000))
+                .andExpect(jsonPath("$.discountPolicyVersion").value(2));
+    }
+}
@@ -0,0 +1,74 @@
+package hello.core.web;
+
+import hello.core.common.AsyncLogWriter;
+import hello.core.common.MyLogger;
+import hello.core.common.MyLoggerFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LogDemoControllerTest {
+
+    Path file;
+    AsyncLogWriter logWriter;
+    AsyncWorkExecutor asyncWorkExecutor;
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        file = Files.createTempFile("log-demo", ".log");
+        logWriter = new AsyncLogWriter(file, 64, AsyncLogWriter.OverflowPolicy.BLOCK);
+        logWriter.start();
+        MyLogger myLogger = new MyLogger(logWriter);
+        asyncWorkExecutor = new AsyncWorkExecutor(myLogger, RequestExecutors.create(false, 4, "async-work"));
+        LogDemoController logDemoController = new LogDemoController(new LogDemoService(myLogger), myLogger, asyncWorkExecutor);
+        mockMvc = MockMvcBuilders.standaloneSetup(logDemoController)
+                .addFilters(new MyLoggerFilter(myLogger))
+                .build();
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        asyncWorkExecutor.close();
+        logWriter.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("비동기 요청은 작업 스레드에서 남긴 로그도 같은 요청 정보로 남기고, 작업이 끝나면 OK 로 응답한다")
+    void logDemoAsync() throws Exception {
+        //given
+        MvcResult mvcResult = mockMvc.perform(get("/log-demo-async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string("OK"));
+        logWriter.close();
+
+        //then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        String uuid = lines.get(0).substring(0, lines.get(0).indexOf(']') + 1);
+        assertThat(lines).contains(
+                uuid + "[http://localhost/log-demo-async] controller test (async)",
+                uuid + "[http://localhost/log-demo-async] service id = testId");
+    }
+}
@@ -0,0 +1,89 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.core.AppConfig;
+import hello.core.member.Grade;
+import hello.core.member.MemberService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MemberControllerTest {
+
+    MemberService memberService;
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void beforeEach() {
+        memberService = new AppConfig().memberService();
+        MemberController memberController = new MemberController(memberService,
+                new DefaultListableBeanFactory().getBeanProvider(ObjectMapper.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(memberController).build();
+    }
+
+    @Test
+    @DisplayName("회원 가입 후 조회할 수 있다")
+    void joinAndFind() throws Exception {
+        //when
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":1,\"name\":\"memberA\",\"grade\":\"VIP\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        //then
+        mockMvc.perform(get("/members/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("memberA"))
+                .andExpect(jsonPath("$.grade").value("VIP"));
+    }
+
+    @Test
+    @DisplayName("id 가 없는 회원 가입은 400")
+    void joinWithoutId() throws Exception {
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"memberA\",\"grade\":\"VIP\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("없는 회원 조회는 404")
+    void findUnknownMember() throws Exception {
+        mockMvc.perform(get("/members/404"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("대량 회원 가입은 저장한 회원을 한 줄씩 응답하고, id 가 없는 줄은 에러 줄로 알려준다")
+    void joinAll() throws Exception {
+        //given
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= 2000; i++) {
+            body.append("{\"id\":").append(i).append(",\"name\":\"member").append(i).append("\",\"grade\":\"BASIC\"}\n");
+        }
+        body.append("{\"name\":\"noId\",\"grade\":\"VIP\"}\n");
+
+        //when
+        String response = mockMvc.perform(post("/members/bulk").contentType(NdjsonWriter.MEDIA_TYPE).content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NdjsonWriter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsString();
+
+        //then
+        String[] lines = response.split("\n");
+        assertThat(lines).hasSize(2001);
+        assertThat(lines[0]).isEqualTo("{\"id\":1,\"name\":\"member1\",\"grade\":\"BASIC\"}");
+        assertThat(lines).contains("{\"error\":\"id is required\",\"name\":\"noId\"}");
+        assertThat(memberService.findMember(2000L).getGrade()).isEqualTo(Grade.BASIC);
+    }
+}
@@ -0,0 +1,173 @@
+package hello.core.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.core.common.AsyncLogWriter;
+import hello.core.common.MyLogger;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import hello.core.member.MemberService;
+import hello.core.member.MemberServiceImpl;
+import hello.core.order.OrderServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderControllerTest {
+
+    static final int MEMBERS = 100;
+
+    AsyncLogWriter logWriter;
+    AsyncWorkExecutor asyncWorkExecutor;
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void beforeEach() {
+        MemberRepository memberRepository = new ConcurrentMemberRepository();
+        MemberService memberService = new MemberServiceImpl(memberRepository);
+        for (long i = 1; i <= MEMBERS; i++) {
+            memberService.join(new Member(i, "member" + i, i % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        logWriter = new AsyncLogWriter((Path) null, 1024, AsyncLogWriter.OverflowPolicy.DROP);
+        asyncWorkExecutor = new AsyncWorkExecutor(new MyLogger(logWriter), RequestExecutors.create(false, 4, "async-work"));
+        OrderController orderController = new OrderController(new OrderServiceImpl(memberRepository, new RateDiscountPolicy()),
+                memberService, asyncWorkExecutor, new DefaultListableBeanFactory().getBeanProvider(ObjectMapper.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        asyncWorkExecutor.close();
+        logWriter.close();
+    }
+
+    @Test
+    @DisplayName("주문을 만들면 할인 금액이 계산된다")
+    void createOrder() throws Exception {
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"memberId\":2,\"itemName\":\"itemA\",\"itemPrice\":10000}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memberId").value(2))
+                .andExpect(jsonPath("$.discountPrice").value(1000));
+    }
+
+    @Test
+    @DisplayName("없는 회원의 주문은 404")
+    void createOrderWithUnknownMember() throws Exception {
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"memberId\":404,\"itemName\":\"itemA\",\"itemPrice\":10000}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"itemA\",\"itemPrice\":10000}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("비동기 주문은 같은 요청 본문을 받고, 작업이 끝나면 할인 금액이 계산된 주문으로 응답한다")
+    void createOrderAsync() throws Exception {
+        //given
+        MvcResult mvcResult = mockMvc.perform(post("/orders-async").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"memberId\":2,\"itemName\":\"itemA\",\"itemPrice\":10000}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when, then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.memberId").value(2))
+                .andExpect(jsonPath("$.discountPrice").value(1000));
+    }
+
+    @Test
+    @DisplayName("없는 회원의 비동기 주문은 404")
+    void createOrderAsyncWithUnknownMember() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(post("/orders-async").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"memberId\":404,\"itemName\":\"itemA\",\"itemPrice\":10000}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("대량 주문은 만들어진 주문을 한 줄씩 응답하고, 없는 회원의 주문은 에러 줄로 알려준다")
+    void createOrders() throws Exception {
+        //given
+        String body = orders(2000) + "{\"memberId\":404,\"itemName\":\"itemA\",\"itemPrice\":10000}\n";
+
+        //when
+        String response = mockMvc.perform(post("/orders/bulk").contentType(NdjsonWriter.MEDIA_TYPE).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //then
+        String[] lines = response.split("\n");
+        assertThat(lines).hasSize(2001);
+        assertThat(lines[0]).startsWith("{\"memberId\":1,\"itemName\":\"item1\"");
+        assertThat(lines).contains("{\"error\":\"member not found\",\"memberId\":404}");
+    }
+
+    // 같은 주문 수를 주문마다 POST /orders 로 보낼 때와 POST /orders/bulk 한 번으로 보낼 때 걸리는 시간
+    // MockMvc 라 네트워크 비용은 빠져 있고, 요청마다 드는 디스패치, JSON 변환, 서비스 호출 비용만 비교한다.
+    @Test
+    @DisplayName("대량 API 와 주문마다 호출하는 API 비교")
+    void bulkVersusPerCall() throws Exception {
+        int count = 10_000;
+        String[] singles = new String[count];
+        for (int i = 0; i < count; i++) {
+            singles[i] = "{\"memberId\":" + (i % MEMBERS + 1) + ",\"itemName\":\"item" + i + "\",\"itemPrice\":" + (1000 + i) + "}";
+        }
+        String bulk = orders(count);
+
+        // 워밍업
+        for (int i = 0; i < 1000; i++) {
+            mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(singles[i]));
+        }
+        mockMvc.perform(post("/orders/bulk").contentType(NdjsonWriter.MEDIA_TYPE).content(bulk));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(singles[i]))
+                    .andExpect(status().isOk());
+        }
+        long perCallNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        String response = mockMvc.perform(post("/orders/bulk").contentType(NdjsonWriter.MEDIA_TYPE).content(bulk))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long bulkNanos = System.nanoTime() - start;
+
+        System.out.println("orders=" + count + ", per call=" + perCallNanos / 1_000_000 + "ms"
+                + ", bulk=" + bulkNanos / 1_000_000 + "ms");
+        assertThat(response.split("\n")).hasSize(count);
+    }
+
+    private static String orders(int count) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("{\"memberId\":").append(i % MEMBERS + 1)
+                    .append(",\"itemName\":\"item").append(i + 1)
+                    .append("\",\"itemPrice\":").append(1000 + i).append("}\n");
+        }
+        return body.toString();
+    }
+}
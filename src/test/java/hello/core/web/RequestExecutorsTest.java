@@ -0,0 +1,141 @@
+package hello.core.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestExecutorsTest {
+
+    @Test
+    @DisplayName("가상 스레드를 요청해도 지원하지 않는 JDK 면 크기가 정해진 플랫폼 스레드 풀을 만든다")
+    void fallback() throws Exception {
+        //given
+        MethodHandle unsupported = RequestExecutors.findVirtualThreadExecutor(20);
+
+        //when
+        ExecutorService executor = RequestExecutors.create(unsupported, true, 4, 10, "fallback");
+
+        //then
+        try {
+            assertThat(unsupported).isNull();
+            assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+            Future<String> name = executor.submit(() -> Thread.currentThread().getName());
+            assertThat(name.get()).startsWith("fallback-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("가상 스레드를 쓰지 않으면 플랫폼 스레드 풀을 만든다")
+    void platformPool() throws Exception {
+        ExecutorService executor = RequestExecutors.create(false, 4);
+        try {
+            Future<String> name = executor.submit(() -> Thread.currentThread().getName());
+            assertThat(name.get()).startsWith("http-request-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("JDK 21 이상이고 실제로 만들 수 있을 때만 가상 스레드를 지원한다고 본다")
+    void virtualThreadSupport() {
+        boolean expected = Runtime.version().feature() >= 21;
+
+        assertThat(RequestExecutors.isVirtualThreadSupported()).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("플랫폼 스레드 풀의 대기열이 가득 차면 작업을 거절한다")
+    void rejectWhenQueueFull() throws Exception {
+        ExecutorService executor = RequestExecutors.create(false, 1, 1, "bounded");
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.submit(() -> {
+                release.await();
+                return null;
+            });
+            executor.submit(() -> null);
+
+            assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> null));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    // 요청마다 10ms 블로킹(로그 I/O, 저장소 접근 등)이 있다고 보고, 동시 요청 1000개를 처리하는 시간과 지연 시간을 비교한다.
+    // 플랫폼 스레드 풀은 풀 크기만큼만 동시에 처리하고, 가상 스레드는 블로킹 중에 캐리어 스레드를 놓아준다.
+    @Test
+    @DisplayName("블로킹 요청이 몰릴 때 처리량과 지연 시간")
+    void blockingLoad() throws Exception {
+        int requests = 1000;
+        Result platform = run(RequestExecutors.create(false, 50), requests);
+        System.out.println("platform pool(50) = " + platform);
+        if (RequestExecutors.isVirtualThreadSupported()) {
+            Result virtual = run(RequestExecutors.create(true, 50), requests);
+            System.out.println("virtual threads   = " + virtual);
+            assertThat(virtual.elapsedMillis).isLessThan(platform.elapsedMillis);
+        }
+        assertThat(platform.completed).isEqualTo(requests);
+    }
+
+    private Result run(ExecutorService executor, int requests) throws Exception {
+        long start = System.nanoTime();
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            long submitted = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                Thread.sleep(10);
+                return System.nanoTime() - submitted;
+            }));
+        }
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            latencies[i] = futures.get(i).get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        Arrays.sort(latencies);
+        return new Result(requests, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                TimeUnit.NANOSECONDS.toMillis(latencies[requests / 2]),
+                TimeUnit.NANOSECONDS.toMillis(latencies[requests * 99 / 100]));
+    }
+
+    static class Result {
+        final int completed;
+        final long elapsedMillis;
+        final long p50Millis;
+        final long p99Millis;
+
+        Result(int completed, long elapsedMillis, long p50Millis, long p99Millis) {
+            this.completed = completed;
+            this.elapsedMillis = elapsedMillis;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+        }
+
+        @Override
+        public String toString() {
+            return "requests=" + completed + ", elapsed=" + elapsedMillis + "ms"
+                    + ", throughput=" + (completed * 1000L / Math.max(1, elapsedMillis)) + "/s"
+                    + ", p50=" + p50Millis + "ms, p99=" + p99Millis + "ms";
+        }
+    }
+}